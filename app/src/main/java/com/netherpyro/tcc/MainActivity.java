@@ -1,88 +1,141 @@
 package com.netherpyro.tcc;
 
-import android.os.AsyncTask;
-import android.os.Build;
 import android.os.Bundle;
-import android.view.ViewGroup;
-import android.view.ViewTreeObserver;
-import android.widget.LinearLayout;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 
 import com.netherpyro.tcc.chart.ChartData;
-import com.netherpyro.tcc.chart.ChartView;
-import com.netherpyro.tcc.util.AssetsFileReader;
-import com.netherpyro.tcc.util.JsonParser;
-
-import org.json.JSONException;
+import com.netherpyro.tcc.chart.ChartListAdapter;
+import com.netherpyro.tcc.util.ChartIndex;
+import com.netherpyro.tcc.util.IndexedChartLoader;
+import com.netherpyro.tcc.util.ParallelChartLoader;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import androidx.appcompat.app.AppCompatActivity;
-
-public class MainActivity extends AppCompatActivity {
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+public class MainActivity extends AppCompatActivity implements ChartListAdapter.ChartRequestListener,
+        ParallelChartLoader.Listener {
+
+    private static final String TAG = "MainActivity";
+    private static final String CHART_ASSET = "chart_data.json";
+
+    private final ExecutorService executor =
+            Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ChartListAdapter adapter = new ChartListAdapter("Followers");
+    private IndexedChartLoader loader;
+    // converts the json into the binary file, charts are delivered by it while it runs
+    private ParallelChartLoader conversion = null;
+    // charts requested while the conversion runs, loaded one by one if it fails
+    private final List<Integer> deferredRequests = new ArrayList<>();
+    private boolean destroyed = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        new LoadJsonTask().execute();
-    }
-
-    private class LoadJsonTask extends AsyncTask<Void, Void, List<ChartData>> {
-
-        @Override
-        protected List<ChartData> doInBackground(Void... voids) {
-            List<ChartData> data = new ArrayList<>();
-            try {
-                data = new JsonParser().parse(
-                        new AssetsFileReader().parse(MainActivity.this, "chart_data.json")
-                );
-            } catch (JSONException e) {
-                e.printStackTrace();
-            } catch (IOException e) {
-                e.printStackTrace();
+        final RecyclerView chartList = findViewById(R.id.chartList);
+        chartList.setLayoutManager(new LinearLayoutManager(this));
+        chartList.setAdapter(adapter);
+        adapter.setChartRequestListener(this);
+
+        // only the index is read up front, every chart is loaded when its view is about to be shown,
+        // from the binary file once the first launch has converted the json
+        loader = new IndexedChartLoader(this, CHART_ASSET);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final ChartIndex index = loader.index();
+                    final boolean converted = loader.isConverted();
+                    mainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (destroyed) {
+                                return;
+                            }
+
+                            if (!converted) {
+                                conversion = new ParallelChartLoader(executor);
+                                conversion.load(MainActivity.this, CHART_ASSET, MainActivity.this);
+                            }
+                            adapter.setChartCount(index.size());
+                        }
+                    });
+                } catch (IOException | RuntimeException e) {
+                    Log.e(TAG, "Unable to index the charts", e);
+                }
             }
+        });
+    }
 
-            return data;
+    @Override
+    protected void onDestroy() {
+        destroyed = true;
+        if (conversion != null) {
+            conversion.cancel();
         }
+        executor.shutdownNow();
 
-        @Override
-        protected void onPostExecute(List<ChartData> chartData) {
-            super.onPostExecute(chartData);
+        super.onDestroy();
+    }
+
+    @Override
+    public void onChartRequested(final int position) {
+        if (conversion != null) {
+            // parsed and delivered by the conversion anyway
+            deferredRequests.add(position);
+            return;
+        }
 
-            final LinearLayout parent = findViewById(R.id.parent);
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        final ChartData chart = loader.load(position);
+                        mainHandler.post(new Runnable() {
+                            @Override
+                            public void run() {
+                                if (!destroyed) {
+                                    adapter.setChart(position, chart);
+                                }
+                            }
+                        });
+                    } catch (IOException | RuntimeException e) {
+                        Log.e(TAG, "Unable to load chart " + position, e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // bound while the activity is being destroyed
+        }
+    }
 
-            for (final ChartData data : chartData) {
-                LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
-                        ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT
-                );
+    @Override
+    public void onChartLoaded(int index, ChartData chart) {
+        deferredRequests.remove(Integer.valueOf(index));
+        adapter.setChart(index, chart);
+    }
 
-                final ChartView chartView = new ChartView(MainActivity.this);
-                chartView.setLayoutParams(params);
-                parent.addView(chartView);
+    @Override
+    public void onLoadFailed(Exception e) {
+        Log.e(TAG, "Unable to convert the charts", e);
 
-                if (Build.VERSION.SDK_INT > Build.VERSION_CODES.JELLY_BEAN) {
-                    parent.getViewTreeObserver().addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-                        @Override
-                        public void onGlobalLayout() {
-                            parent.getViewTreeObserver().removeOnGlobalLayoutListener(this);
-                            chartView.setChartName("Followers");
-                            chartView.setData(data);
-                        }
-                    });
-                } else {
-                    parent.getViewTreeObserver().addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-                        @Override
-                        public void onGlobalLayout() {
-                            parent.getViewTreeObserver().removeGlobalOnLayoutListener(this);
-                            chartView.setChartName("Followers");
-                            chartView.setData(data);
-                        }
-                    });
-                }
-            }
+        conversion = null;
+        for (Integer position : deferredRequests) {
+            onChartRequested(position);
         }
+        deferredRequests.clear();
     }
 }
@@ -0,0 +1,136 @@
+package com.netherpyro.tcc.chart;
+
+import android.os.Debug;
+
+/**
+ * Work of a chart since its previous drawn frame. Geometry computed for frames that were never drawn
+ * is counted in the next drawn one.
+ */
+public final class ChartFrameMetrics {
+
+    long minMaxNanos;
+    long projectionNanos;
+    long labelNanos;
+    long drawNanos;
+    int segmentsDrawn;
+    long pointsCulled;
+    int animatorRestarts;
+    long allocatedBytes;
+
+    // allocation counter of the measuring thread when the current phase started
+    private int phaseAllocSize;
+
+    ChartFrameMetrics() {
+    }
+
+    /**
+     * @return time spent on min and max queries of the visible ranges
+     */
+    public long getMinMaxNanos() {
+        return minMaxNanos;
+    }
+
+    /**
+     * @return time spent on projecting points to view coordinates
+     */
+    public long getProjectionNanos() {
+        return projectionNanos;
+    }
+
+    /**
+     * @return time spent on laying out abscissa and ordinate labels
+     */
+    public long getLabelNanos() {
+        return labelNanos;
+    }
+
+    /**
+     * @return time spent in the draw pass of the graph
+     */
+    public long getDrawNanos() {
+        return drawNanos;
+    }
+
+    /**
+     * @return line segments drawn, history segments only count when the history strip is redrawn
+     */
+    public int getSegmentsDrawn() {
+        return segmentsDrawn;
+    }
+
+    /**
+     * @return points of the visible series left out because they are outside of the window
+     */
+    public long getPointsCulled() {
+        return pointsCulled;
+    }
+
+    /**
+     * @return ordinate transitions started or retargeted
+     */
+    public int getAnimatorRestarts() {
+        return animatorRestarts;
+    }
+
+    /**
+     * @return bytes allocated by the measured phases, 0 unless allocation counting is started
+     * with {@link Debug#startAllocCounting()}
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return start of a phase for one of the {@code end} methods
+     */
+    @SuppressWarnings("deprecation")
+    long start() {
+        phaseAllocSize = Debug.getThreadAllocSize();
+        return System.nanoTime();
+    }
+
+    void endMinMax(long start) {
+        minMaxNanos += elapsed(start);
+    }
+
+    void endProjection(long start) {
+        projectionNanos += elapsed(start);
+    }
+
+    void endLabels(long start) {
+        labelNanos += elapsed(start);
+    }
+
+    void endDraw(long start) {
+        drawNanos += elapsed(start);
+    }
+
+    void add(ChartFrameMetrics other) {
+        minMaxNanos += other.minMaxNanos;
+        projectionNanos += other.projectionNanos;
+        labelNanos += other.labelNanos;
+        drawNanos += other.drawNanos;
+        segmentsDrawn += other.segmentsDrawn;
+        pointsCulled += other.pointsCulled;
+        animatorRestarts += other.animatorRestarts;
+        allocatedBytes += other.allocatedBytes;
+    }
+
+    void reset() {
+        minMaxNanos = 0;
+        projectionNanos = 0;
+        labelNanos = 0;
+        drawNanos = 0;
+        segmentsDrawn = 0;
+        pointsCulled = 0;
+        animatorRestarts = 0;
+        allocatedBytes = 0;
+    }
+
+    @SuppressWarnings("deprecation")
+    private long elapsed(long start) {
+        final long nanos = System.nanoTime() - start;
+        allocatedBytes += Debug.getThreadAllocSize() - phaseAllocSize;
+        return nanos;
+    }
+}
@@ -0,0 +1,108 @@
+package com.netherpyro.tcc.chart;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Shows a list of charts with {@link ChartView}s that are recycled while scrolling.
+ * A recycled view keeps its geometry buffers, paints, history layer and checkbox rows
+ * and is only bound to the data of another chart.
+ * <p>
+ * Charts may be given later than their count, a chart that is about to be shown before it has been given
+ * is requested from the listener and its view stays invisible until then.
+ */
+public class ChartListAdapter extends RecyclerView.Adapter<ChartListAdapter.ChartViewHolder> {
+
+    public interface ChartRequestListener {
+        /**
+         * Called once per chart, the chart is given back by {@link #setChart}.
+         */
+        void onChartRequested(int position);
+    }
+
+    // null for charts that are not given yet
+    private final List<ChartData> charts = new ArrayList<>();
+    private final List<Boolean> requested = new ArrayList<>();
+    private final String chartName;
+    @Nullable
+    private ChartRequestListener requestListener = null;
+
+    static final class ChartViewHolder extends RecyclerView.ViewHolder {
+
+        final ChartView chartView;
+
+        ChartViewHolder(ChartView chartView) {
+            super(chartView);
+            this.chartView = chartView;
+        }
+    }
+
+    public ChartListAdapter(String chartName) {
+        this.chartName = chartName;
+    }
+
+    public void setChartRequestListener(@Nullable ChartRequestListener listener) {
+        requestListener = listener;
+    }
+
+    /**
+     * Shows the given quantity of charts, each one is requested when its view is bound for the first time.
+     */
+    public void setChartCount(int count) {
+        charts.clear();
+        requested.clear();
+        for (int i = 0; i < count; i++) {
+            charts.add(null);
+            requested.add(false);
+        }
+        notifyDataSetChanged();
+    }
+
+    public void setChart(int position, @NonNull ChartData chart) {
+        charts.set(position, chart);
+        notifyItemChanged(position);
+    }
+
+    @NonNull
+    @Override
+    public ChartViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        final ChartView chartView = new ChartView(parent.getContext());
+        chartView.setLayoutParams(new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT
+        ));
+        chartView.setChartName(chartName);
+
+        return new ChartViewHolder(chartView);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ChartViewHolder holder, int position) {
+        final ChartData chart = charts.get(position);
+        if (chart != null) {
+            holder.chartView.setVisibility(View.VISIBLE);
+            holder.chartView.setData(chart);
+            return;
+        }
+
+        // a recycled view keeps the size of its previous chart until the data arrives
+        holder.chartView.setVisibility(View.INVISIBLE);
+        if (!requested.get(position)) {
+            requested.set(position, true);
+            if (requestListener != null) {
+                requestListener.onChartRequested(position);
+            }
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return charts.size();
+    }
+}
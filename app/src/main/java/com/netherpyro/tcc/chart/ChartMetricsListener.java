@@ -0,0 +1,16 @@
+package com.netherpyro.tcc.chart;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives the work behind every drawn frame of a {@link ChartView}, see {@link ChartView#setMetricsListener}.
+ */
+public interface ChartMetricsListener {
+
+    /**
+     * Called on the main thread after the graph is drawn.
+     *
+     * @param metrics reused for the next frame, values that are kept must be copied out
+     */
+    void onFrameMetrics(@NonNull ChartFrameMetrics metrics);
+}
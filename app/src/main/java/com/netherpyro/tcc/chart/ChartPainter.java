@@ -0,0 +1,111 @@
+package com.netherpyro.tcc.chart;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.Px;
+
+/**
+ * Paints of a chart drawport and how its grid, labels and lines are drawn with them.
+ * Shared by the graph of {@link ChartView} and {@link ChartRenderer}, an instance is used by one thread at a time.
+ */
+final class ChartPainter {
+
+    @ColorInt
+    static final int DEFAULT_GRID_COLOR = 0xFFE7E8E9;
+    @ColorInt
+    static final int DEFAULT_VALUE_TEXT_COLOR = 0xFF94A2AB;
+    static final int DEFAULT_SIZE_SP_TEXT_VALUE = 16;
+    private static final int LINE_WIDTH = 3;
+    private static final int POINTS_IN_GRID_LINE = RulerLabels.POINTS_IN_GRID_LINE;
+
+    final Paint gridPaint;
+    final Paint valuePaint;
+    final Paint linePaint;
+    final PaintLabelStyle labelStyle;
+    private final SegmentPainter segmentPainter = new SegmentPainter();
+    @Px
+    private final int valueTextSize;
+    @Px
+    private final int labelSpacing;
+
+    /**
+     * @param labelSpacing distance between a label and its grid line
+     */
+    ChartPainter(@ColorInt int gridColor, @ColorInt int valueTextColor, @Px int valueTextSize, @Px int labelSpacing) {
+        this.valueTextSize = valueTextSize;
+        this.labelSpacing = labelSpacing;
+
+        valuePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        valuePaint.setColor(valueTextColor);
+        valuePaint.setTextSize(valueTextSize);
+        labelStyle = new PaintLabelStyle(valuePaint);
+
+        gridPaint = new Paint();
+        gridPaint.setColor(gridColor);
+
+        linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        linePaint.setStrokeWidth(LINE_WIDTH);
+        linePaint.setStyle(Paint.Style.STROKE);
+        linePaint.setStrokeCap(Paint.Cap.ROUND);
+        linePaint.setStrokeJoin(Paint.Join.ROUND);
+    }
+
+    void drawGrid(Canvas canvas, float[] gridPoints) {
+        canvas.drawLines(gridPoints, gridPaint);
+    }
+
+    /**
+     * Labels are drawn under the base floor, the first grid line.
+     */
+    void drawAbscissaLabels(Canvas canvas, float[] gridPoints, AbscissaLabelLayout layout) {
+        final float y = abscissaLabelsY(gridPoints);
+        for (int i = 0; i < layout.count(); i++) {
+            canvas.drawText(layout.label(i), layout.x(i), y, valuePaint);
+        }
+    }
+
+    void drawAbscissaLabels(Canvas canvas, float[] gridPoints, String[] labels, float[] x, int count) {
+        final float y = abscissaLabelsY(gridPoints);
+        for (int i = 0; i < count; i++) {
+            canvas.drawText(labels[i], x[i], y, valuePaint);
+        }
+    }
+
+    void drawOrdinateLabels(Canvas canvas, float[] gridPoints, RulerLabels labels) {
+        for (int i = 0; i < labels.count(); i++) {
+            final int arrayStartPointer = i * POINTS_IN_GRID_LINE;
+            canvas.drawText(labels.chars[i], 0, labels.lengths[i],
+                    gridPoints[arrayStartPointer], gridPoints[arrayStartPointer + 1] - labelSpacing, valuePaint);
+        }
+    }
+
+    /**
+     * @return quantity of drawn segments
+     */
+    int drawLine(Canvas canvas, SegmentRing line, @ColorInt int color) {
+        linePaint.setColor(color);
+        return line.draw(segmentPainter.on(canvas, linePaint));
+    }
+
+    /**
+     * @return quantity of drawn segments
+     */
+    int drawLine(Canvas canvas, SegmentRing.Snapshot line, @ColorInt int color) {
+        linePaint.setColor(color);
+        return line.draw(segmentPainter.on(canvas, linePaint));
+    }
+
+    /**
+     * @return height the abscissa labels need under the base floor
+     */
+    int abscissaLabelsHeight() {
+        return labelSpacing + valueTextSize;
+    }
+
+    private float abscissaLabelsY(float[] gridPoints) {
+        // y of the most bottom line
+        return gridPoints[1] + abscissaLabelsHeight();
+    }
+}
@@ -0,0 +1,148 @@
+package com.netherpyro.tcc.chart;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Px;
+
+/**
+ * Draws a window of a chart without a view, the way the main drawport of {@link ChartView} shows it:
+ * grid, date and value labels and all lines. Lines are drawn from the lod level of the width and only
+ * the labeled dates are formatted, so a long series costs about as much as a short one.
+ * <p>
+ * Works on any thread, an instance is used by one thread at a time.
+ */
+public final class ChartRenderer {
+
+    private static final int DEFAULT_QTY_RULER_FLOORS = 5;
+    private static final int POINTS_IN_GRID_LINE = 4;
+    private static final int ORDINATE_LABELS_CACHE_SIZE = 64;
+    private static final int DEFAULT_DP_NORMAL_SPACING = 16;
+    private static final int DEFAULT_DP_SMALL_SPACING = 8;
+    private static final int DEFAULT_DP_XSMALL_SPACING = 4;
+
+    private final int width;
+    private final int height;
+    private final ChartPainter painter;
+    private final OrdinateLabelCache ordinateLabels;
+    private final float labelMaxWidth;
+    private final float labelSpacing;
+    private final RulerLabels rulerLabels = new RulerLabels(DEFAULT_QTY_RULER_FLOORS + 1);
+    private final float[] rulerGridPoints = new float[(DEFAULT_QTY_RULER_FLOORS + 1) * POINTS_IN_GRID_LINE];
+    private final ViewportTransform viewport;
+    // a ring per line, kept for the next chart
+    private final List<SegmentRing> rings = new ArrayList<>();
+    // date labels of the last chart, another window of it formats only the dates it adds
+    private ChartData labeledData = null;
+    private DateLabelTable dateLabels = null;
+    private CoordinateResolver resolver;
+    private boolean labelsVisible = true;
+
+    public ChartRenderer(@Px int width, @Px int height) {
+        this.width = width;
+        this.height = height;
+
+        final int valueTextSize = Util.spToPx(ChartPainter.DEFAULT_SIZE_SP_TEXT_VALUE);
+        painter = new ChartPainter(ChartPainter.DEFAULT_GRID_COLOR, ChartPainter.DEFAULT_VALUE_TEXT_COLOR,
+                valueTextSize, Util.dpToPx(DEFAULT_DP_SMALL_SPACING));
+        ordinateLabels = new OrdinateLabelCache(ORDINATE_LABELS_CACHE_SIZE, painter.labelStyle);
+        labelMaxWidth = painter.valuePaint.measureText("WWW 99");
+        labelSpacing = Util.dpToPx(DEFAULT_DP_NORMAL_SPACING) + Util.dpToPx(DEFAULT_DP_SMALL_SPACING);
+        viewport = new ViewportTransform(0, width);
+        layoutDrawport();
+    }
+
+    /**
+     * When disabled, lines take the whole height without grid and labels, e.g. for small thumbnails. Enabled by default.
+     */
+    public void setLabelsVisible(boolean visible) {
+        labelsVisible = visible;
+        layoutDrawport();
+    }
+
+    /**
+     * Renders the window into a new bitmap of the renderer size with a transparent background.
+     *
+     * @param fromFraction left edge of the window, 0 for the first point
+     * @param toFraction   right edge of the window, 1 for the last point
+     */
+    @NonNull
+    public Bitmap render(@NonNull ChartData data, float fromFraction, float toFraction) {
+        final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        draw(data, fromFraction, toFraction, new Canvas(bitmap));
+        return bitmap;
+    }
+
+    /**
+     * Draws the window with its top left corner at the origin of the canvas.
+     *
+     * @param fromFraction left edge of the window, 0 for the first point
+     * @param toFraction   right edge of the window, 1 for the last point
+     */
+    public void draw(@NonNull ChartData data, float fromFraction, float toFraction, @NonNull Canvas canvas) {
+        final int count = data.size();
+        if (count == 0) {
+            return;
+        }
+
+        viewport.setPoints(0, count);
+        viewport.setWindowFraction(fromFraction, toFraction);
+        final int fromIndex = viewport.firstIndex();
+        final int toIndex = viewport.lastIndex();
+
+        final List<GraphLineModel> lines = data.rowsData;
+        float minValue = Float.MAX_VALUE;
+        float maxValue = -Float.MAX_VALUE;
+        for (int i = 0; i < lines.size(); i++) {
+            final RangeExtremums extremums = lines.get(i).extremums();
+            minValue = Math.min(minValue, extremums.min(fromIndex, toIndex));
+            maxValue = Math.max(maxValue, extremums.max(fromIndex, toIndex));
+        }
+        resolver.setOrdinateWindow(minValue, maxValue);
+
+        if (labelsVisible) {
+            rulerLabels.layout(resolver, ordinateLabels, width, rulerGridPoints);
+            painter.drawGrid(canvas, rulerGridPoints);
+
+            if (data != labeledData) {
+                labeledData = data;
+                dateLabels = new DateLabelTable(data.columnData, painter.labelStyle);
+            }
+
+            final AbscissaLabelLayout abscissaLabels = new AbscissaLabelLayout(dateLabels, labelMaxWidth, labelSpacing);
+            abscissaLabels.layout(fromIndex, toIndex, count - 1, (float) viewport.xOf(fromIndex), (float) viewport.scale());
+            painter.drawAbscissaLabels(canvas, rulerGridPoints, abscissaLabels);
+        }
+
+        while (rings.size() < lines.size()) {
+            rings.add(new SegmentRing());
+        }
+
+        for (int i = 0; i < lines.size(); i++) {
+            final GraphLineModel line = lines.get(i);
+            final SegmentRing ring = rings.get(i);
+            // segments of the previous chart must not be taken for this one
+            ring.reset();
+            ring.project(resolver, viewport, line, width, fromIndex, toIndex, false);
+            painter.drawLine(canvas, ring, line.color);
+        }
+
+        if (labelsVisible) {
+            painter.drawOrdinateLabels(canvas, rulerGridPoints, rulerLabels);
+        }
+    }
+
+    private void layoutDrawport() {
+        if (labelsVisible) {
+            // the same room for the labels as the main drawport of the view has
+            final int padding = Util.spToPx(ChartPainter.DEFAULT_SIZE_SP_TEXT_VALUE) + Util.dpToPx(DEFAULT_DP_NORMAL_SPACING);
+            resolver = new CoordinateResolver(height - painter.abscissaLabelsHeight(), 0, padding);
+        } else {
+            resolver = new CoordinateResolver(height, 0, Util.dpToPx(DEFAULT_DP_XSMALL_SPACING));
+        }
+    }
+}
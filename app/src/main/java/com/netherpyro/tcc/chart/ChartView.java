@@ -1,14 +1,16 @@
 package com.netherpyro.tcc.chart;
 
-import android.animation.ValueAnimator;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.RectF;
+import android.os.Handler;
 import android.util.AttributeSet;
-import android.util.Log;
+import android.view.Choreographer;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
@@ -18,15 +20,16 @@ import com.netherpyro.tcc.R;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import androidx.annotation.ColorInt;
+import androidx.annotation.IntRange;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.Px;
-import androidx.collection.ArraySet;
 import androidx.core.content.ContextCompat;
-import androidx.core.util.Pair;
+import androidx.core.view.ViewCompat;
 
 /**
  * @author mmikhailov on 16/03/2019.
@@ -54,6 +57,12 @@ public class ChartView extends LinearLayout {
     private int chartNameTextColor = ContextCompat.getColor(getContext(), ATTRS_DEFAULT_COLOR_RES_TEXT_CHART_NAME);
 
     private final GraphView graphView = new GraphView(getContext());
+    // rows of the bound lines first, the rest is kept gone for the next binding
+    private final List<Checkbox> checkboxes = new ArrayList<>();
+    // read by the thread that appends points, the data and the live buffer are swapped under the lock
+    private final Object liveLock = new Object();
+    private ChartData data = null;
+    private volatile int capacity = 0;
 
     private float lastTouchX = 0;
 
@@ -74,15 +83,47 @@ public class ChartView extends LinearLayout {
     }
 
     public void setData(ChartData data) {
+        synchronized (liveLock) {
+            this.data = data;
+            graphView.liveBuffer = null;
+        }
         graphView.setValues(data.columnData, data.rowsData);
+        bindCheckboxes(data.rowsData);
+    }
+
+    /**
+     * Shows a chart that is read from its source on demand, see {@link PagedChart}.
+     */
+    public void setData(PagedChart chart) {
+        synchronized (liveLock) {
+            this.data = null;
+            graphView.liveBuffer = null;
+        }
+        graphView.setPagedValues(chart);
+        bindCheckboxes(chart.summary.rowsData);
+    }
 
-        int i = 0;
-        for (final GraphLineModel model : data.rowsData) {
-            boolean drawDivider = i != data.rowsData.size() - 1;
+    /**
+     * Rows of a previous binding are rebound to the new lines, so a recycled view only creates the missing ones.
+     */
+    private void bindCheckboxes(List<GraphLineModel> lines) {
+        for (int i = 0; i < lines.size(); i++) {
+            final GraphLineModel model = lines.get(i);
+            boolean drawDivider = i != lines.size() - 1;
+
+            if (i < checkboxes.size()) {
+                final Checkbox cb = checkboxes.get(i);
+                cb.bind(model.color, model.name, drawDivider);
+                cb.setVisibility(VISIBLE);
+                continue;
+            }
+
+            // series are registered in the order of the lines, so the row position is the series handle
+            final int handle = i;
             Checkbox cb = new Checkbox(getContext(), model.color, model.name, drawDivider, normalSpacing, smallSpacing, new CheckListener() {
                 @Override
                 public void onChecked(boolean checked) {
-                    graphView.toggleChartLine(model.id);
+                    graphView.toggleChartLine(handle);
                 }
             });
 
@@ -94,10 +135,81 @@ public class ChartView extends LinearLayout {
             cb.setLayoutParams(cbParams);
 
             addView(cb);
-            i++;
+            checkboxes.add(cb);
+        }
+
+        for (int i = lines.size(); i < checkboxes.size(); i++) {
+            checkboxes.get(i).setVisibility(GONE);
         }
     }
 
+    /**
+     * Limits the chart to the latest {@code capacity} points once points are appended, older ones are dropped.
+     * Takes effect on the first {@link #appendPoint} after {@link #setData}.
+     *
+     * @param capacity max quantity of points, 0 (default) for no limit
+     */
+    public void setCapacity(@IntRange(from = 0) int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Appends a point after the data given to {@link #setData}. May be called from a background thread,
+     * the chart picks the new points up on the next frame without blocking the writer.
+     * Points must be appended by one thread at a time.
+     *
+     * @param values a value per line, in the order of the lines of the data
+     */
+    public void appendPoint(long timestamp, float... values) {
+        LiveChartBuffer buffer = graphView.liveBuffer;
+        if (buffer == null) {
+            // the buffer is created for the data that is bound now, not for data that setData replaced meanwhile
+            synchronized (liveLock) {
+                buffer = graphView.liveBuffer;
+                if (buffer == null) {
+                    if (data == null) {
+                        throw new IllegalStateException("Points are appended to the ChartData given to setData");
+                    }
+
+                    buffer = new LiveChartBuffer(data, capacity);
+                    graphView.liveBuffer = buffer;
+                }
+            }
+        }
+
+        // a point appended to a buffer that setData dropped meanwhile belongs to the replaced data
+        buffer.append(timestamp, values);
+        graphView.scheduleLiveSnapshot();
+    }
+
+    /**
+     * When enabled (default), ordinate transitions move and scale already projected lines with a canvas matrix
+     * instead of projecting every point on every frame.
+     */
+    public void setTransformRendering(boolean enabled) {
+        graphView.transformRendering = enabled;
+    }
+
+    /**
+     * When enabled, lines, grid and labels are computed on a background thread and drawn from complete frames,
+     * so gestures don't wait for the projection of large charts. Disabled by default.
+     * Must be called before the data is set.
+     */
+    public void setAsyncGeometry(boolean enabled) {
+        graphView.setAsyncGeometry(enabled);
+    }
+
+    /**
+     * Reports the work behind every drawn frame of the graph, null (default) disables the measurements.
+     */
+    public void setMetricsListener(@Nullable ChartMetricsListener listener) {
+        graphView.setMetricsListener(listener);
+    }
+
     public void setChartName(String name) {
         chartName = name;
         invalidate();
@@ -150,66 +262,132 @@ public class ChartView extends LinearLayout {
 
     private class GraphView extends View {
 
-        private final int DEFAULT_SIZE_SP_TEXT_VALUE = 16;
         private final int TOUCH_SLOP_VALUE = 16;
         private final int DEFAULT_QTY_RULER_FLOORS = 5;
         private final int pointsInArrayOffset = 4;
         private final int DEFAULT_HISTORY_CONTROLLER_HORIZONTAL_LINE_WIDTH = 3;
         private final int DEFAULT_HISTORY_CONTROLLER_VERTICAL_LINE_WIDTH = DEFAULT_HISTORY_CONTROLLER_HORIZONTAL_LINE_WIDTH * 4;
         private final long ANIMATION_DURATION = 150;
+        private final int ORDINATE_LABELS_CACHE_SIZE = 64;
+
+        // physical index of the first point, live data is a window of the buffer arrays
+        private int indexOffset = 0;
+        private int pointsCount;
+        private int historyIndexOffset = 0;
+        private int historyPointsCount;
+        private PagedChart pagedChart = null;
+        // data bound before the view has a size, applied by onSizeChanged
+        private TimeAxis pendingXValues = null;
+        private List<GraphLineModel> pendingLines = null;
+        private PagedChart pendingPagedChart = null;
+        // raw points of the paged chart, null while the main chart draws the summary
+        private PagedChart.Window pagedWindow = null;
+        // window that is not drawn anymore, the next load refills its arrays
+        private PagedChart.Window spareWindow = null;
+        private boolean pagedWindowLoading = false;
+        private volatile LiveChartBuffer liveBuffer = null;
+        private LiveChartBuffer.Snapshot liveSnapshot = null;
+        private final AtomicBoolean liveSnapshotScheduled = new AtomicBoolean(false);
+        private final Runnable liveSnapshotApplier = new Runnable() {
+            @Override
+            public void run() {
+                liveSnapshotScheduled.set(false);
+                applyLiveSnapshot();
+            }
+        };
+        private final SeriesRegistry series = new SeriesRegistry();
+
+        // geometry is computed on this thread when set, the main thread only draws published frames
+        private volatile Handler geometryHandler = null;
+        // bindings started on the main thread and the one the geometry is computed for
+        private int bindings = 0;
+        private int geometryBinding = 0;
+        // window the geometry is computed for, the controller may already show a newer one
+        private float geometryFromX;
+        private float geometryToX;
+        // both bounds of the latest window request as float bits
+        private final AtomicLong requestedWindow = new AtomicLong();
+        private final AtomicBoolean windowRequestScheduled = new AtomicBoolean(false);
+        private final Runnable windowRequestApplier = new Runnable() {
+            @Override
+            public void run() {
+                windowRequestScheduled.set(false);
+                final long window = requestedWindow.get();
+                applyWindow(Float.intBitsToFloat((int) (window >>> 32)), Float.intBitsToFloat((int) window));
+            }
+        };
+        private final Runnable animatorResumer = new Runnable() {
+            @Override
+            public void run() {
+                yAnimator.resume();
+            }
+        };
+        private final Runnable animatorPauser = new Runnable() {
+            @Override
+            public void run() {
+                yAnimator.pause();
+            }
+        };
 
-        private Long[] abscissaValues;
-        private final Set<GraphLineModel> ordinateValuesSet = new ArraySet<>();
+        // main thread, null while metrics are disabled
+        private ChartMetricsListener metricsListener = null;
+        private ChartFrameMetrics frameMetrics = null;
+        // of the thread the geometry is computed on, the same as frameMetrics without a geometry thread
+        private ChartFrameMetrics geometryMetrics = null;
 
         private CoordinateResolver mainCoordinateResolver;
         private CoordinateResolver historyCoordinateResolver;
 
-        private int rulerFloors = DEFAULT_QTY_RULER_FLOORS;
         @ColorInt
-        private int rulerGridColor = 0xFFE7E8E9;
+        private int rulerGridColor = ChartPainter.DEFAULT_GRID_COLOR;
         @ColorInt
-        private int rulerValueTextColor = 0xFF94A2AB;
+        private int rulerValueTextColor = ChartPainter.DEFAULT_VALUE_TEXT_COLOR;
         @ColorInt
         private int historyOverlayColor = 0xB3E7E8E9;
         @ColorInt
         private int historyControllerColor = 0x4D94A2AB;
         @Px
-        private int rulerValueTextSize = Util.spToPx(DEFAULT_SIZE_SP_TEXT_VALUE);
+        private int rulerValueTextSize = Util.spToPx(ChartPainter.DEFAULT_SIZE_SP_TEXT_VALUE);
         private final int touchSlop = Util.dpToPx(TOUCH_SLOP_VALUE);
 
         private int graphWidth;
         private float abscessValueTextMaxWidth;
         private float abscessValueAppropriateSpacing;
-        private Set<ViewedLineModel> viewedLinesData = new ArraySet<>();
-        private List<String> rulerAbscissaLabels = new ArrayList<>();
-        private List<String> rulerOrdinateLabels = new ArrayList<>();
-        private float[] rulerAbscissaLabelXCoordinates;
-        private float[] rulerOrdinateGridLinesPoints;
-        private float[] mainLinePointsXCoordinates;
-        private float[] historyLinePointsXCoordinates;
-        private Paint rulerGridPaint;
-        private Paint rulerValuePaint;
-        private Paint linePaint;
+        private AbscissaLabelLayout abscissaLabelLayout;
+        private final ChartPainter painter;
+        private final PaintLabelStyle labelStyle;
+        private final OrdinateLabelCache ordinateLabels;
+        private final RulerLabels rulerOrdinateLabels = new RulerLabels(DEFAULT_QTY_RULER_FLOORS + 1);
+        private final float[] rulerOrdinateGridLinesPoints = new float[(DEFAULT_QTY_RULER_FLOORS + 1) * pointsInArrayOffset];
+        private final GeometryFrame.Exchange frames =
+                new GeometryFrame.Exchange(rulerOrdinateGridLinesPoints.length, rulerOrdinateLabels.count());
+        private ViewportTransform mainViewport;
+        private ViewportTransform historyViewport;
         private Paint historyOverlayPaint;
         private Paint historyControllerPaint;
+        private Bitmap historyLayer = null;
+        private final Canvas historyLayerCanvas = new Canvas();
+        private boolean historyLayerDirty = true;
+        // bumped whenever the history lines are projected
+        private int historyVersion = 0;
+        private int drawnHistoryVersion = -1;
+        // settled strip of the visible series taken from the mask cache, drawn instead of historyLayer
+        private Bitmap cachedHistoryLayer = null;
 
         private int mainDrawportHeight;
         private int spaceHeight;
         private int historyDrawportHeight;
 
-        private boolean initialized = false;
+        // written by the geometry thread when there is one
+        private volatile boolean initialized = false;
+        private boolean transformRendering = true;
 
         private int horizontalFromIndex;
         private int horizontalToIndex;
 
-        private float maxOrdinateValue;
-        private float maxOrdinateHistoryValue;
-        private float minOrdinateValue;
-        private float minOrdinateHistoryValue;
-
-        private ValueAnimator yAnimator = null;
-        private float minHistoryValue;
-        private float maxHistoryValue;
+        private final OrdinateRangeAnimator yAnimator;
+        // min and max results of the series registry, kept in a field to not box a pair
+        private final float[] calculatedMinMax = new float[2];
         private int historyFromIndex;
         private int historyToIndex;
 
@@ -220,71 +398,204 @@ public class ChartView extends LinearLayout {
 
         private float windowFromX;
         private float windowToX;
+        // window the touch input moves the controller to, applied once per frame
+        private float targetFromX;
+        private float targetToX;
+        private Choreographer choreographer = null;
+        private boolean targetWindowScheduled = false;
+        private final Choreographer.FrameCallback targetWindowApplier = new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                targetWindowScheduled = false;
+                if (targetFromX != windowFromX || targetToX != windowToX) {
+                    setWindow(targetFromX, targetToX);
+                }
+            }
+        };
 
         GraphView(Context context) {
             super(context);
 
-            rulerValuePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            rulerValuePaint.setColor(rulerValueTextColor);
-            rulerValuePaint.setTextSize(rulerValueTextSize);
-            abscessValueTextMaxWidth = rulerValuePaint.measureText("WWW 99");
+            painter = new ChartPainter(rulerGridColor, rulerValueTextColor, rulerValueTextSize, smallSpacing);
+            abscessValueTextMaxWidth = painter.valuePaint.measureText("WWW 99");
             abscessValueAppropriateSpacing = normalSpacing + smallSpacing;
-
-            rulerGridPaint = new Paint();
-            rulerGridPaint.setColor(rulerGridColor);
-
-            linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            linePaint.setStrokeWidth(3);
-            linePaint.setStyle(Paint.Style.STROKE);
-            linePaint.setStrokeCap(Paint.Cap.ROUND);
-            linePaint.setStrokeJoin(Paint.Join.ROUND);
+            labelStyle = painter.labelStyle;
+            ordinateLabels = new OrdinateLabelCache(ORDINATE_LABELS_CACHE_SIZE, labelStyle);
 
             historyOverlayPaint = new Paint();
             historyOverlayPaint.setColor(historyOverlayColor);
 
             historyControllerPaint = new Paint();
             historyControllerPaint.setColor(historyControllerColor);
+
+            yAnimator = new OrdinateRangeAnimator(ANIMATION_DURATION, new OrdinateRangeAnimator.Listener() {
+                @Override
+                public void onOrdinateRangeFrame(boolean mainChanged, boolean historyChanged) {
+                    // the only geometry pass of the frame
+                    if (historyChanged) {
+                        historyCoordinateResolver.setOrdinateWindow(yAnimator.historyMin.value, yAnimator.historyMax.value);
+                        invalidateHistoryLines();
+                    }
+
+                    if (mainChanged) {
+                        mainCoordinateResolver.setOrdinateWindow(yAnimator.mainMin.value, yAnimator.mainMax.value);
+                        proceedInvalidateYValues();
+                    }
+
+                    invalidateGeometry();
+                    publishFrame();
+                }
+            });
+        }
+
+        void setValues(@NonNull TimeAxis xValues, @NonNull List<GraphLineModel> yValuesSet) {
+            bind(xValues, yValuesSet, null);
         }
 
-        void setValues(@NonNull List<Long> xValues, @NonNull List<GraphLineModel> yValuesSet) {
-            if (xValues.isEmpty()) {
+        void setPagedValues(@NonNull PagedChart chart) {
+            // the summary is the history and the main chart until the window is narrow enough for raw points
+            bind(chart.summary.columnData, chart.summary.rowsData, chart);
+        }
+
+        void setAsyncGeometry(boolean enabled) {
+            if (bindings > 0) {
+                throw new IllegalStateException("The geometry thread is chosen before the data is set");
+            }
+
+            geometryHandler = enabled ? GeometryThread.handler() : null;
+            geometryMetrics = enabled && frameMetrics != null ? new ChartFrameMetrics() : frameMetrics;
+        }
+
+        void setMetricsListener(@Nullable ChartMetricsListener listener) {
+            metricsListener = listener;
+            if (listener == null) {
+                frameMetrics = null;
+            } else if (frameMetrics == null) {
+                frameMetrics = new ChartFrameMetrics();
+            }
+
+            if (geometryHandler == null) {
+                geometryMetrics = frameMetrics;
                 return;
             }
 
-            graphWidth = getWidth();
+            final boolean enabled = listener != null;
+            geometryHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (!enabled) {
+                        geometryMetrics = null;
+                    } else if (geometryMetrics == null) {
+                        geometryMetrics = new ChartFrameMetrics();
+                    }
+                }
+            });
+        }
 
-            mainCoordinateResolver = new CoordinateResolver(graphWidth, mainDrawportHeight, 0, 0, rulerValueTextSize + normalSpacing, xValues.size());
-            historyCoordinateResolver = new CoordinateResolver(graphWidth, historyDrawportHeight, 0, mainDrawportHeight + spaceHeight, xsmallSpacing, xValues.size());
+        /**
+         * Main thread part of a binding: the window of the controller, the geometry is bound by {@link #bindGeometry}.
+         */
+        private void bind(@NonNull final TimeAxis xValues, @NonNull final List<GraphLineModel> yValuesSet,
+                          @Nullable final PagedChart chart) {
+            if (xValues.size() == 0) {
+                return;
+            }
+
+            graphWidth = getWidth();
+            if (graphWidth == 0) {
+                // e.g. a view just created by a RecyclerView, nothing can be projected before layout
+                pendingXValues = xValues;
+                pendingLines = yValuesSet;
+                pendingPagedChart = chart;
+                initialized = false;
+                return;
+            }
+            pendingXValues = null;
+            pendingLines = null;
+            pendingPagedChart = null;
 
-            abscissaValues = new Long[xValues.size()];
-            xValues.toArray(abscissaValues);
-            ordinateValuesSet.addAll(yValuesSet);
+            windowFromX = targetFromX = 0f;
+            windowToX = targetToX = graphWidth;
+            invalidateHistoryOverlayValues();
 
-            viewedLinesData.clear();
-            for (GraphLineModel lineModel : ordinateValuesSet) {
-                viewedLinesData.add(new ViewedLineModel(lineModel.id, lineModel.color));
+            final int binding = ++bindings;
+            if (geometryHandler == null) {
+                bindGeometry(binding, xValues, yValuesSet, chart);
+                return;
             }
 
-            final int start = historyFromIndex = 0;
-            final int end = historyToIndex = abscissaValues.length - 1;
-            windowFromX = 0f;
-            windowToX = graphWidth;
+            // frames of the previous data are not drawn anymore
+            initialized = false;
+            invalidate();
+            geometryHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    bindGeometry(binding, xValues, yValuesSet, chart);
+                }
+            });
+        }
 
-            horizontalFromIndex = start;
-            horizontalToIndex = end;
+        private void bindGeometry(int binding, @NonNull TimeAxis xValues, @NonNull List<GraphLineModel> yValuesSet,
+                                  @Nullable PagedChart chart) {
+            geometryBinding = binding;
+            mainCoordinateResolver = new CoordinateResolver(mainDrawportHeight, 0, rulerValueTextSize + normalSpacing);
+            historyCoordinateResolver = new CoordinateResolver(historyDrawportHeight, mainDrawportHeight + spaceHeight, xsmallSpacing);
+            mainViewport = new ViewportTransform(0, graphWidth);
+            mainViewport.setPoints(0, xValues.size());
+            historyViewport = new ViewportTransform(0, graphWidth);
+            historyViewport.setPoints(0, xValues.size());
+
+            pointsCount = historyPointsCount = xValues.size();
+            indexOffset = historyIndexOffset = 0;
+            liveSnapshot = null;
+            pagedChart = null;
+            pagedWindow = null;
+            spareWindow = null;
+            // a load of the previous binding is dropped when it arrives
+            pagedWindowLoading = false;
+            abscissaLabelLayout = new AbscissaLabelLayout(new DateLabelTable(xValues, labelStyle),
+                    abscessValueTextMaxWidth, abscessValueAppropriateSpacing);
+
+            series.releaseHistoryLayers();
+            series.clear();
+            series.setMutable(false);
+            showCachedHistoryLayer(null);
+            for (int i = 0; i < yValuesSet.size(); i++) {
+                final GraphLineModel lineModel = yValuesSet.get(i);
+                // build range index and lod up front, not on the first gesture
+                lineModel.extremums();
+                lineModel.lod();
+                series.register(lineModel);
+            }
 
+            historyFromIndex = 0;
+            historyToIndex = historyPointsCount - 1;
+            geometryFromX = 0f;
+            geometryToX = graphWidth;
+
+            calculateWindowIndexes();
             invalidateHistoryXValues();
             invalidateXValues();
             invalidateYValues(true);
-            invalidateHistoryOverlayValues();
 
             initialized = true;
+
+            if (chart != null) {
+                pagedChart = chart;
+                applyWindow(geometryFromX, geometryToX);
+            } else {
+                publishFrame();
+            }
         }
 
         private void invalidateHistoryXValues() {
-            calculateLinePointsXCoordinates(historyCoordinateResolver, true);
+            // history always shows all points, whatever the window is
+            historyViewport.setWindowFraction(0, 1);
         }
 
+        /**
+         * Moves the controller at once, the geometry follows on the geometry thread when there is one.
+         */
         void setWindow(float fromX, float toX) {
             if (!initialized) {
                 return;
@@ -292,27 +603,232 @@ public class ChartView extends LinearLayout {
 
             windowFromX = fromX;
             windowToX = toX;
+            invalidateHistoryOverlayValues();
 
-            horizontalFromIndex = (int) (windowFromX / graphWidth * abscissaValues.length);
-            horizontalToIndex = (int) (windowToX / graphWidth * abscissaValues.length);
-
-            if (horizontalFromIndex < 0) {
-                horizontalFromIndex = 0;
+            if (geometryHandler == null) {
+                applyWindow(fromX, toX);
+                return;
             }
 
-            if (horizontalToIndex >= abscissaValues.length) {
-                horizontalToIndex = abscissaValues.length - 1;
+            // windows requested until the geometry thread gets to them are applied at once
+            requestedWindow.set(((long) Float.floatToRawIntBits(fromX) << 32) | (Float.floatToRawIntBits(toX) & 0xFFFFFFFFL));
+            if (windowRequestScheduled.compareAndSet(false, true)) {
+                geometryHandler.post(windowRequestApplier);
             }
+            invalidate();
+        }
 
+        private void applyWindow(float fromX, float toX) {
+            geometryFromX = fromX;
+            geometryToX = toX;
+
+            updateWindowGeometry(pagedChart != null && bindPagedWindow());
+        }
+
+        /**
+         * @param rebound true if other lines were bound to the main chart
+         */
+        private void updateWindowGeometry(boolean rebound) {
+            calculateWindowIndexes();
             invalidateXValues();
             invalidateYValues(false);
-            invalidateHistoryOverlayValues();
+            if (rebound) {
+                // new lines have no geometry yet, it must not wait for the transitions
+                proceedInvalidateYValues();
+                invalidateGeometry();
+            }
+            publishFrame();
+        }
+
+        /**
+         * Binds the summary while the raw points of the window are not loaded, they are bound by
+         * {@link #onPagedWindowLoaded} once the {@link PageLoadThread} has read them.
+         *
+         * @return true if other lines were bound to the main chart
+         */
+        private boolean bindPagedWindow() {
+            final int total = pagedChart.pointCount();
+            // the same fractional indexes as the main viewport has for all points
+            final double last = total - 1;
+            final double windowPoints = (geometryToX - geometryFromX) / graphWidth * last;
+
+            if (windowPoints <= PagedChart.MAX_WINDOW_POINTS) {
+                final int from = (int) Math.max(0, Math.floor(geometryFromX / graphWidth * last));
+                final int to = (int) Math.min(last, Math.ceil(geometryToX / graphWidth * last));
+                if (pagedWindow != null && pagedWindow.covers(from, to)) {
+                    // the next window is loaded ahead once the range comes within a quarter of it from an edge
+                    final int margin = (to - from + 1) / 4;
+                    if (!pagedWindow.covers(Math.max(0, from - margin), (int) Math.min(last, to + margin))) {
+                        requestPagedWindow(from, to);
+                    }
+                    return false;
+                }
+
+                requestPagedWindow(from, to);
+            }
+
+            if (pagedWindow != null) {
+                spareWindow = pagedWindow;
+                pagedWindow = null;
+                bindMainValues(pagedChart.summary.columnData, 0, pagedChart.summary.rowsData, 0, pagedChart.summary.size());
+                return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Loads the window on the {@link PageLoadThread}, a range requested while a load is running is checked
+         * again when that load arrives.
+         */
+        private void requestPagedWindow(final int fromIndex, final int toIndex) {
+            if (pagedWindowLoading) {
+                return;
+            }
+            pagedWindowLoading = true;
+
+            final int binding = geometryBinding;
+            final PagedChart chart = pagedChart;
+            final PagedChart.Window recycled = spareWindow;
+            spareWindow = null;
+            final Handler handler = geometryHandler;
+            PageLoadThread.handler().post(new Runnable() {
+                @Override
+                public void run() {
+                    final PagedChart.Window window = chart.load(fromIndex, toIndex, recycled);
+                    final Runnable loaded = new Runnable() {
+                        @Override
+                        public void run() {
+                            onPagedWindowLoaded(binding, window);
+                        }
+                    };
+
+                    if (handler != null) {
+                        handler.post(loaded);
+                    } else {
+                        ViewCompat.postOnAnimation(GraphView.this, loaded);
+                    }
+                }
+            });
+        }
+
+        private void onPagedWindowLoaded(int binding, PagedChart.Window window) {
+            if (binding != geometryBinding) {
+                return;
+            }
+            pagedWindowLoading = false;
+
+            if (pagedWindow != null) {
+                spareWindow = pagedWindow;
+            }
+            pagedWindow = window;
+            bindMainValues(TimeAxis.wrap(window.timestamps), window.from, window.lines, -window.from, pagedChart.pointCount());
+
+            // the window may have moved on while it was loading, e.g. to another one or to the summary
+            bindPagedWindow();
+            updateWindowGeometry(true);
+        }
+
+        /**
+         * @param timestamps time axis of the lines
+         * @param origin     index of the first timestamp among all points, labels are anchored by it
+         * @param offset     physical index in the arrays of the lines is {@code offset + index}
+         * @param count      quantity of points the window is chosen from
+         */
+        private void bindMainValues(TimeAxis timestamps, int origin, List<GraphLineModel> lines, int offset, int count) {
+            for (int i = 0; i < series.size(); i++) {
+                series.replace(i, lines.get(i), series.get(i).summary);
+            }
+
+            abscissaLabelLayout = new AbscissaLabelLayout(new DateLabelTable(timestamps, labelStyle), origin,
+                    abscessValueTextMaxWidth, abscessValueAppropriateSpacing);
+            indexOffset = offset;
+            pointsCount = count;
+            mainViewport.setPoints(offset, count);
+        }
+
+        /**
+         * Window edges fall between points, the points next to them beyond the edges are drawn too.
+         */
+        private void calculateWindowIndexes() {
+            mainViewport.setWindowFraction(geometryFromX / graphWidth, geometryToX / graphWidth);
+            horizontalFromIndex = mainViewport.firstIndex() - indexOffset;
+            horizontalToIndex = mainViewport.lastIndex() - indexOffset;
+        }
+
+        /**
+         * Called from the writer thread, snapshots published until the next frame are applied at once.
+         */
+        void scheduleLiveSnapshot() {
+            if (liveSnapshotScheduled.compareAndSet(false, true)) {
+                final Handler handler = geometryHandler;
+                if (handler != null) {
+                    handler.post(liveSnapshotApplier);
+                } else {
+                    ViewCompat.postOnAnimation(this, liveSnapshotApplier);
+                }
+            }
+        }
+
+        /**
+         * Points are addressed by their physical index in the buffer arrays, so a window that slides
+         * by the appended points keeps the projected segments and only projects the new tail.
+         */
+        private void applyLiveSnapshot() {
+            final LiveChartBuffer buffer = liveBuffer;
+            if (buffer == null || !initialized) {
+                return;
+            }
+
+            final LiveChartBuffer.Snapshot snapshot = buffer.acquire();
+            if (snapshot == liveSnapshot) {
+                return;
+            }
+
+            final boolean rebound = liveSnapshot == null || liveSnapshot.timestamps != snapshot.timestamps;
+            if (rebound) {
+                // lines and labels are bound to the arrays of the buffer, they are replaced when it grows
+                series.setMutable(true);
+                series.releaseHistoryLayers();
+                showCachedHistoryLayer(null);
+                for (int i = 0; i < series.size(); i++) {
+                    series.replace(i, snapshot.lines.get(i), snapshot.lines.get(i));
+                }
+
+                abscissaLabelLayout = new AbscissaLabelLayout(new DateLabelTable(TimeAxis.wrap(snapshot.timestamps), labelStyle),
+                        abscessValueTextMaxWidth, abscessValueAppropriateSpacing);
+            }
+
+            liveSnapshot = snapshot;
+            indexOffset = historyIndexOffset = snapshot.start;
+
+            if (snapshot.count != pointsCount) {
+                pointsCount = historyPointsCount = snapshot.count;
+                historyToIndex = pointsCount - 1;
+            }
+
+            // the window stays on the same part of the points while they slide through the buffer
+            mainViewport.setPoints(indexOffset, pointsCount);
+            historyViewport.setPoints(historyIndexOffset, historyPointsCount);
+            calculateWindowIndexes();
+            invalidateHistoryXValues();
+
+            invalidateXValues();
+            invalidateYValues(true);
+
+            if (rebound) {
+                // new lines have no geometry yet, it must not wait for the transitions
+                calculateLinePointsYCoordinates(historyCoordinateResolver, historyViewport, historyFromIndex, historyToIndex, true);
+                proceedInvalidateYValues();
+                invalidateGeometry();
+            }
+            publishFrame();
         }
 
         void setWindowRight(float x) {
             float rightX;
 
-            if (x < windowFromX + touchSlop) {
+            if (x < targetFromX + touchSlop) {
                 return;
             } else if (x > graphWidth) {
                 rightX = graphWidth;
@@ -320,52 +836,118 @@ public class ChartView extends LinearLayout {
                 rightX = x;
             }
 
-            setWindow(windowFromX, rightX);
+            requestWindow(targetFromX, rightX);
         }
 
         void setWindowLeft(float x) {
             float leftX;
 
-            if (x > windowToX - touchSlop) {
+            if (x > targetToX - touchSlop) {
                 return;
             } else if (x < 0) {
                 leftX = 0;
             } else {
                 leftX = x;
             }
-            setWindow(leftX, windowToX);
+            requestWindow(leftX, targetToX);
         }
 
         void moveWindow(float deltaX) {
-            float leftX = windowFromX + deltaX;
-            float rightX = windowToX + deltaX;
+            float leftX = targetFromX + deltaX;
+            float rightX = targetToX + deltaX;
 
             if (leftX < 0) {
                 leftX = 0;
-                rightX = windowToX;
+                rightX = targetToX;
             } else if (rightX > graphWidth) {
                 rightX = graphWidth;
-                leftX = windowFromX;
+                leftX = targetFromX;
             }
 
-            if (leftX == windowFromX && rightX == windowToX) return;
+            if (leftX == targetFromX && rightX == targetToX) return;
 
-            setWindow(leftX, rightX);
+            requestWindow(leftX, rightX);
         }
 
-        void toggleChartLine(String chartId) {
-            if (!initialized) {
+        /**
+         * Only records the window, it is applied by the next frame callback. Input is dispatched before
+         * the animation callbacks of the same frame, so the window is still drawn in the frame of the event.
+         */
+        private void requestWindow(float fromX, float toX) {
+            targetFromX = fromX;
+            targetToX = toX;
+
+            if (!targetWindowScheduled) {
+                if (choreographer == null) {
+                    choreographer = Choreographer.getInstance();
+                }
+                targetWindowScheduled = true;
+                choreographer.postFrameCallback(targetWindowApplier);
+            }
+        }
+
+        void toggleChartLine(final int handle) {
+            if (!initialized || handle < 0) {
                 return;
             }
 
-            for (ViewedLineModel lineModel : viewedLinesData) {
-                if (chartId.equals(lineModel.chartId)) {
-                    lineModel.enabled = !lineModel.enabled;
-                    break;
-                }
+            if (geometryHandler == null) {
+                applyToggle(handle);
+                return;
             }
 
+            geometryHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    applyToggle(handle);
+                }
+            });
+        }
+
+        private void applyToggle(int handle) {
+            series.toggle(handle);
+
             invalidateYValues(true);
+            publishFrame();
+        }
+
+        @Override
+        protected void onAttachedToWindow() {
+            super.onAttachedToWindow();
+            if (geometryHandler != null) {
+                // the animator runs on the frames of the geometry thread
+                geometryHandler.post(animatorResumer);
+            } else {
+                yAnimator.resume();
+            }
+        }
+
+        @Override
+        protected void onDetachedFromWindow() {
+            if (targetWindowScheduled) {
+                choreographer.removeFrameCallback(targetWindowApplier);
+                targetWindowScheduled = false;
+            }
+            if (geometryHandler != null) {
+                geometryHandler.post(animatorPauser);
+            } else {
+                yAnimator.pause();
+            }
+            super.onDetachedFromWindow();
+        }
+
+        @Override
+        protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+            super.onSizeChanged(w, h, oldw, oldh);
+            releaseHistoryLayer();
+
+            if (w > 0 && pendingXValues != null) {
+                if (pendingPagedChart != null) {
+                    setPagedValues(pendingPagedChart);
+                } else {
+                    setValues(pendingXValues, pendingLines);
+                }
+            }
         }
 
         @Override
@@ -390,43 +972,22 @@ public class ChartView extends LinearLayout {
                 return;
             }
 
-            // draw ruler lines
-            canvas.drawLines(rulerOrdinateGridLinesPoints, rulerGridPaint);
-
-            // draw ruler X values
-            final float abscissaValueY = rulerOrdinateGridLinesPoints[1] + // y of most bottom line
-                    smallSpacing + rulerValueTextSize;
-
-            for (int i = 0; i < rulerAbscissaLabels.size(); i++) {
-                canvas.drawText(
-                        rulerAbscissaLabels.get(i),
-                        rulerAbscissaLabelXCoordinates[i],
-                        abscissaValueY,
-                        rulerValuePaint
-                );
-            }
-
-            // draw chart and history lines
-            for (ViewedLineModel line : viewedLinesData) {
+            final ChartFrameMetrics metrics = frameMetrics;
+            final long drawStart = metrics != null ? metrics.start() : 0L;
 
-                if (!line.enabled) {
-                    continue;
+            if (geometryHandler != null) {
+                final GeometryFrame frame = frames.swap();
+                if (frame != null && metrics != null) {
+                    // the front frame stays until the next one is published, its work is reported once
+                    metrics.add(frame.metrics);
+                    frame.metrics.reset();
                 }
 
-                linePaint.setColor(line.color);
-                canvas.drawLines(line.mainLinePointsParts, linePaint);
-                canvas.drawLines(line.historyLinePointsParts, linePaint);
-            }
-
-            // draw ruler Y values
-            for (int i = 0; i < rulerOrdinateLabels.size(); i++) {
-                int arrayStartPointer = i * pointsInArrayOffset;
-                canvas.drawText(
-                        rulerOrdinateLabels.get(i),
-                        rulerOrdinateGridLinesPoints[arrayStartPointer],
-                        rulerOrdinateGridLinesPoints[arrayStartPointer + 1] - smallSpacing,
-                        rulerValuePaint
-                );
+                if (frame != null && frame.binding == bindings) {
+                    drawFrame(canvas, frame);
+                }
+            } else {
+                drawGeometry(canvas);
             }
 
             //draw history overlay
@@ -438,6 +999,54 @@ public class ChartView extends LinearLayout {
 
             historyControllerPaint.setStrokeWidth(DEFAULT_HISTORY_CONTROLLER_VERTICAL_LINE_WIDTH);
             canvas.drawLines(historyControllerVerticalLinesPointsCoordinates, historyControllerPaint);
+
+            if (metrics != null) {
+                metrics.endDraw(drawStart);
+                metricsListener.onFrameMetrics(metrics);
+                metrics.reset();
+            }
+        }
+
+        private void drawGeometry(Canvas canvas) {
+            painter.drawGrid(canvas, rulerOrdinateGridLinesPoints);
+            painter.drawAbscissaLabels(canvas, rulerOrdinateGridLinesPoints, abscissaLabelLayout);
+
+            for (int i = 0; i < series.size(); i++) {
+                if (!series.isVisible(i)) {
+                    continue;
+                }
+
+                final ViewedLineModel line = series.get(i);
+                final int drawn = painter.drawLine(canvas, line.mainLine, line.color);
+                if (frameMetrics != null) {
+                    frameMetrics.segmentsDrawn += drawn;
+                }
+            }
+
+            drawHistoryLayer(canvas, null);
+            painter.drawOrdinateLabels(canvas, rulerOrdinateGridLinesPoints, rulerOrdinateLabels);
+        }
+
+        /**
+         * Draws a frame of the geometry thread, the same way {@link #drawGeometry} draws the current geometry.
+         */
+        private void drawFrame(Canvas canvas, GeometryFrame frame) {
+            painter.drawGrid(canvas, frame.rulerGridPoints);
+            painter.drawAbscissaLabels(canvas, frame.rulerGridPoints, frame.abscissaLabels, frame.abscissaX, frame.abscissaCount);
+
+            for (int i = 0; i < frame.seriesCount; i++) {
+                if (!frame.visible[i]) {
+                    continue;
+                }
+
+                final int drawn = painter.drawLine(canvas, frame.mainLines[i], frame.colors[i]);
+                if (frameMetrics != null) {
+                    frameMetrics.segmentsDrawn += drawn;
+                }
+            }
+
+            drawHistoryLayer(canvas, frame);
+            painter.drawOrdinateLabels(canvas, frame.rulerGridPoints, frame.rulerLabels);
         }
 
         @SuppressLint("ClickableViewAccessibility")
@@ -450,6 +1059,8 @@ public class ChartView extends LinearLayout {
 
                 lastTouchX = event.getX();
                 float y = event.getY();
+                targetFromX = windowFromX;
+                targetToX = windowToX;
 
                 if (lastTouchX > (historyControllerHorizontalLinesPointsCoordinates[0] + touchSlop) &&
                         lastTouchX < (historyControllerHorizontalLinesPointsCoordinates[2] - touchSlop) &&
@@ -460,7 +1071,6 @@ public class ChartView extends LinearLayout {
                     touchingRight = false;
                     touchingLeft = false;
                     touchingCenter = true;
-                    Log.d("Dbg.", "touching center");
                     return true;
                 }
 
@@ -473,7 +1083,6 @@ public class ChartView extends LinearLayout {
                     touchingRight = true;
                     touchingLeft = false;
                     touchingCenter = false;
-                    Log.d("Dbg.", "touching right");
                     return true;
                 }
 
@@ -486,7 +1095,6 @@ public class ChartView extends LinearLayout {
                     touchingRight = false;
                     touchingLeft = true;
                     touchingCenter = false;
-                    Log.d("Dbg.", "touching left");
                     return true;
                 }
             }
@@ -496,27 +1104,15 @@ public class ChartView extends LinearLayout {
                 touchingRight = false;
                 touchingLeft = false;
                 touchingCenter = false;
-                Log.d("Dbg.", "touching nothing");
                 return true;
             }
 
             if (event.getAction() == MotionEvent.ACTION_MOVE) {
-                final float x = event.getX();
-                final float y = event.getY();
-
-                if (lastTouchX == x) {
-                    return true;
+                // batched samples since the previous event, the controller stops at the edges the way they were crossed
+                for (int h = 0; h < event.getHistorySize(); h++) {
+                    trackTouch(event.getHistoricalX(h));
                 }
-
-                if (touchingRight) {
-                    setWindowRight(x);
-                } else if (touchingLeft) {
-                    setWindowLeft(x);
-                } else if (touchingCenter) {
-                    moveWindow(x - lastTouchX);
-                }
-
-                lastTouchX = x;
+                trackTouch(event.getX());
 
                 return true;
             }
@@ -530,172 +1126,286 @@ public class ChartView extends LinearLayout {
             return true;
         }
 
-        private void invalidateXValues() {
-            // get x-coordinates of abscissa values to be displayed
-            calculateLinePointsXCoordinates(mainCoordinateResolver, false);
+        private void trackTouch(float x) {
+            if (lastTouchX == x) {
+                return;
+            }
 
-            // get abscissa label x-positions and quantity
-            int labelsCount = (int) ((graphWidth - abscessValueTextMaxWidth) / (abscessValueAppropriateSpacing + abscessValueTextMaxWidth));
-            final float step = (graphWidth - abscessValueTextMaxWidth) / labelsCount;
+            if (touchingRight) {
+                setWindowRight(x);
+            } else if (touchingLeft) {
+                setWindowLeft(x);
+            } else if (touchingCenter) {
+                moveWindow(x - lastTouchX);
+            }
 
-            labelsCount++; // add the first label
+            lastTouchX = x;
+        }
 
-            rulerAbscissaLabelXCoordinates = new float[labelsCount];
-            for (int k = 0; k < labelsCount; k++) {
-                rulerAbscissaLabelXCoordinates[k] = k * step;
+        private void invalidateXValues() {
+            // labels stay on their points, the labeled points only change with the zoom level
+            final ChartFrameMetrics metrics = geometryMetrics;
+            final long labelStart = metrics != null ? metrics.start() : 0L;
+            abscissaLabelLayout.layout(indexOffset + horizontalFromIndex, indexOffset + horizontalToIndex,
+                    indexOffset + pointsCount - 1, (float) mainViewport.xOf(indexOffset + horizontalFromIndex), (float) mainViewport.scale());
+            if (metrics != null) {
+                metrics.endLabels(labelStart);
             }
+        }
 
-            // get abscissa labels text to be displayed
-            final int[] indexes = new int[labelsCount];
-            final int indexStep = mainLinePointsXCoordinates.length / (labelsCount - 1); // without the first label //todo fix divide by zero
+        private void invalidateYValues(final boolean invalidateHistory) {
+            final ChartFrameMetrics metrics = geometryMetrics;
 
-            int currentIndex = horizontalFromIndex;
-            for (int j = 0; j < labelsCount; j++) {
-                indexes[j] = currentIndex;
-                currentIndex += indexStep;
+            if (invalidateHistory) {
+                final long minMaxStart = metrics != null ? metrics.start() : 0L;
+                series.historyMinMax(historyIndexOffset + historyFromIndex, historyIndexOffset + historyToIndex, calculatedMinMax);
+                if (metrics != null) {
+                    metrics.endMinMax(minMaxStart);
+                }
 
-                if (currentIndex >= abscissaValues.length) {
-                    currentIndex = abscissaValues.length - 1;
+                if (!yAnimator.animateHistory(calculatedMinMax[0], calculatedMinMax[1])) {
+                    invalidateHistoryLines();
+                } else if (metrics != null) {
+                    metrics.animatorRestarts++;
                 }
             }
 
-            final List<Long> rulerAbscissaValues = new ArrayList<>(labelsCount);
-            for (int index : indexes) {
-                rulerAbscissaValues.add(abscissaValues[index]);
+            // calculate min and max ordinate value, geometry follows on the next frame
+            final long minMaxStart = metrics != null ? metrics.start() : 0L;
+            series.minMax(indexOffset + horizontalFromIndex, indexOffset + horizontalToIndex, calculatedMinMax);
+            if (metrics != null) {
+                metrics.endMinMax(minMaxStart);
             }
 
-            rulerAbscissaLabels = Util.convertTimestampsToLabels(rulerAbscissaValues);
+            if (yAnimator.animateMain(calculatedMinMax[0], calculatedMinMax[1])) {
+                if (metrics != null) {
+                    metrics.animatorRestarts++;
+                }
+            } else if (!yAnimator.isMainRunning()) {
+                // the ordinate window stays, so only newly exposed points are projected
+                proceedInvalidateYValues();
+                invalidateGeometry();
+            }
         }
 
-        private void invalidateYValues(final boolean invalidateHistory) {
-            if (invalidateHistory) {
-                final Pair<Float, Float> minMaxPairHistory = calculateMinMaxValues(historyFromIndex, historyToIndex);
-                minHistoryValue = minMaxPairHistory.first;
-                maxHistoryValue = minMaxPairHistory.second;
+        /**
+         * Settled history strips are served from the cache of the visibility mask when it has one,
+         * otherwise the history lines are projected and drawn into the layer.
+         */
+        private void invalidateHistoryLines() {
+            if (!series.isMutable() && !yAnimator.isHistoryRunning()) {
+                final SeriesRegistry.MaskCache cache = series.visibleCache();
+                if (cache.historyLayer != null) {
+                    showCachedHistoryLayer(cache.historyLayer);
+                    return;
+                }
             }
 
-            // calculate min and max ordinate value
-            final Pair<Float, Float> minMaxPairMain = calculateMinMaxValues(horizontalFromIndex, horizontalToIndex);
+            calculateLinePointsYCoordinates(historyCoordinateResolver, historyViewport, historyFromIndex, historyToIndex, true);
+        }
 
-            yAnimator = ValueAnimator.ofFloat(0f, 1f);
-            yAnimator.setDuration(ANIMATION_DURATION);
-            yAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-                @Override
-                public void onAnimationUpdate(ValueAnimator animation) {
-                    float val = (float) animation.getAnimatedValue();
-
-                    if (invalidateHistory) {
-                        maxOrdinateHistoryValue = maxOrdinateHistoryValue * (1 - val) + val * maxHistoryValue;
-                        minOrdinateHistoryValue = minOrdinateHistoryValue * (1 - val) + val * minHistoryValue;
-                        historyCoordinateResolver.setOrdinateWindow(minOrdinateHistoryValue, maxOrdinateHistoryValue);
-                        calculateLinePointsYCoordinates(historyCoordinateResolver, historyLinePointsXCoordinates, historyFromIndex, historyToIndex, true);
-                    }
+        private void proceedInvalidateYValues() {
+            // calculate lines coordinates
+            calculateLinePointsYCoordinates(mainCoordinateResolver, mainViewport, horizontalFromIndex, horizontalToIndex, false);
+
+            // calculate labels & grid lines coordinates
+            final ChartFrameMetrics metrics = geometryMetrics;
+            final long labelStart = metrics != null ? metrics.start() : 0L;
+            rulerOrdinateLabels.layout(mainCoordinateResolver, ordinateLabels, graphWidth, rulerOrdinateGridLinesPoints);
+
+            if (metrics != null) {
+                metrics.endLabels(labelStart);
+            }
+        }
+
+        private void calculateLinePointsYCoordinates(CoordinateResolver resolver, ViewportTransform viewport, int fromIndex, int toIndex, boolean forHistory) {
+            final int viewedPointsCount = toIndex - fromIndex + 1;
+            // transitions are drawn by transforming existing geometry, settled frames are projected exactly
+            final boolean allowTransform = transformRendering &&
+                    (forHistory ? yAnimator.isHistoryRunning() : yAnimator.isMainRunning());
+
+            final int offset = forHistory ? historyIndexOffset : indexOffset;
+            final ChartFrameMetrics metrics = geometryMetrics;
+            final long projectionStart = metrics != null ? metrics.start() : 0L;
+
+            for (int j = 0; j < series.size(); j++) {
+                if (!series.isVisible(j)) continue;
 
-                    maxOrdinateValue = maxOrdinateValue * (1 - val) + val * minMaxPairMain.second;
-                    minOrdinateValue = minOrdinateValue * (1 - val) + val * minMaxPairMain.first;
-                    mainCoordinateResolver.setOrdinateWindow(minOrdinateValue, maxOrdinateValue);
-                    proceedInvalidateYValues();
-                    invalidate();
+                final ViewedLineModel viewedLineModel = series.get(j);
+                final GraphLineModel line = forHistory ? viewedLineModel.summary : viewedLineModel.line;
+
+                final SegmentRing ring = forHistory ? viewedLineModel.historyLine : viewedLineModel.mainLine;
+
+                ring.project(resolver, viewport, line, graphWidth, offset + fromIndex, offset + toIndex, allowTransform);
+                if (metrics != null && !forHistory) {
+                    metrics.pointsCulled += pointsCount - viewedPointsCount;
                 }
+            }
 
-            });
-            yAnimator.start();
+            if (metrics != null) {
+                metrics.endProjection(projectionStart);
+            }
+
+            if (forHistory) {
+                historyVersion++;
+                showCachedHistoryLayer(null);
+            }
         }
 
-        private Pair<Float, Float> calculateMinMaxValues(int fromIndex, int toIndex) {
-            float maxValue = Float.MIN_VALUE;
-            float minValue = Float.MAX_VALUE;
+        /**
+         * History lines only change on toggles and new values, so they are drawn into the layer bitmap
+         * once and every other frame just blits it.
+         *
+         * @param frame frame of the geometry thread the history is drawn from, null to draw the current geometry
+         */
+        private void drawHistoryLayer(Canvas canvas, @Nullable GeometryFrame frame) {
+            final int historyTop = mainDrawportHeight + spaceHeight;
+
+            if (frame == null && cachedHistoryLayer != null) {
+                canvas.drawBitmap(cachedHistoryLayer, 0f, historyTop, null);
+                return;
+            }
+
+            if (historyLayer == null) {
+                if (graphWidth <= 0 || historyDrawportHeight <= 0) {
+                    return;
+                }
+
+                historyLayer = Bitmap.createBitmap(graphWidth, historyDrawportHeight, Bitmap.Config.ARGB_8888);
+                historyLayerCanvas.setBitmap(historyLayer);
+                historyLayerDirty = true;
+            }
 
-            for (ViewedLineModel viewedLineModel : viewedLinesData) {
-                if (!viewedLineModel.enabled) continue;
+            final int version = frame != null ? frame.historyVersion : historyVersion;
+            if (historyLayerDirty || drawnHistoryVersion != version) {
+                historyLayer.eraseColor(Color.TRANSPARENT);
+                historyLayerCanvas.save();
+                historyLayerCanvas.translate(0f, -historyTop);
 
-                for (GraphLineModel fullLine : ordinateValuesSet) {
-                    if (viewedLineModel.chartId.equals(fullLine.id)) {
-                        for (int i = fromIndex; i <= toIndex; i++) {
-                            float currentValue = fullLine.values[i];
+                if (frame != null) {
+                    for (int i = 0; i < frame.seriesCount; i++) {
+                        if (!frame.visible[i]) {
+                            continue;
+                        }
 
-                            if (currentValue > maxValue) {
-                                maxValue = currentValue;
-                            }
+                        final int drawn = painter.drawLine(historyLayerCanvas, frame.historyLines[i], frame.colors[i]);
+                        if (frameMetrics != null) {
+                            frameMetrics.segmentsDrawn += drawn;
+                        }
+                    }
+                } else {
+                    for (int i = 0; i < series.size(); i++) {
+                        if (!series.isVisible(i)) {
+                            continue;
+                        }
 
-                            if (currentValue < minValue) {
-                                minValue = currentValue;
-                            }
+                        final ViewedLineModel line = series.get(i);
+                        final int drawn = painter.drawLine(historyLayerCanvas, line.historyLine, line.color);
+                        if (frameMetrics != null) {
+                            frameMetrics.segmentsDrawn += drawn;
                         }
                     }
                 }
+
+                historyLayerCanvas.restore();
+                historyLayerDirty = false;
+                drawnHistoryVersion = version;
+
+                if (frame == null && !series.isMutable() && !yAnimator.isHistoryRunning()) {
+                    final SeriesRegistry.MaskCache cache = series.visibleCache();
+                    if (cache.historyLayer == null) {
+                        cache.historyLayer = historyLayer.copy(Bitmap.Config.ARGB_8888, false);
+                    }
+                }
             }
 
-            return new Pair<>(minValue, maxValue);
+            canvas.drawBitmap(historyLayer, 0f, historyTop, null);
         }
 
-        private void proceedInvalidateYValues() {
-            // calculate lines coordinates
-            calculateLinePointsYCoordinates(mainCoordinateResolver, mainLinePointsXCoordinates, horizontalFromIndex, horizontalToIndex, false);
-
-            // calculate labels & grid lines coordinates
-            float maxValue = mainCoordinateResolver.maxOrdinateValue();
-            float minValue = mainCoordinateResolver.minOrdinateValue();
-            float step = (maxValue - minValue) / rulerFloors;
+        /**
+         * Requests a redraw of the current geometry, with a geometry thread {@link #publishFrame} does it instead.
+         */
+        private void invalidateGeometry() {
+            if (geometryHandler == null) {
+                invalidate();
+            }
+        }
 
-            int pointsArraySize = (rulerFloors + 1) * pointsInArrayOffset; // size: (rulerFloors + base floor) * point qty for every floor
-            rulerOrdinateGridLinesPoints = new float[pointsArraySize];
+        /**
+         * Copies the geometry into the back frame and hands it over to {@link #onDraw}, geometry thread only.
+         * Without a geometry thread the rings are drawn directly and there is nothing to publish.
+         */
+        private void publishFrame() {
+            if (geometryHandler == null || !initialized) {
+                return;
+            }
 
-            rulerOrdinateLabels.clear();
+            final GeometryFrame frame = frames.back();
+            frame.binding = geometryBinding;
+            frame.ensureSeries(series.size());
 
-            int i = 0;
-            while (i <= rulerFloors) { // include base floor
-                float valueToAdd = (minValue + step * i);
-                rulerOrdinateLabels.add(String.valueOf((int) valueToAdd));
+            final boolean historyChanged = frame.historyVersion != historyVersion;
+            for (int i = 0; i < series.size(); i++) {
+                final ViewedLineModel line = series.get(i);
+                frame.visible[i] = series.isVisible(i);
+                frame.colors[i] = line.color;
 
-                int arrayStartPointer = i * pointsInArrayOffset;
-                rulerOrdinateGridLinesPoints[arrayStartPointer] = 0f;
-                rulerOrdinateGridLinesPoints[arrayStartPointer + 1] =
-                        rulerOrdinateGridLinesPoints[arrayStartPointer + 3] =
-                                mainCoordinateResolver.yOfOrdinateValue(valueToAdd);
-                rulerOrdinateGridLinesPoints[arrayStartPointer + 2] = (float) graphWidth;
+                if (frame.visible[i]) {
+                    line.mainLine.copyTo(frame.mainLines[i]);
+                }
 
-                i++;
+                if (historyChanged) {
+                    line.historyLine.copyTo(frame.historyLines[i]);
+                }
             }
-        }
+            frame.historyVersion = historyVersion;
 
-        private void calculateLinePointsXCoordinates(CoordinateResolver resolver, boolean forHistory) {
-            resolver.setXWindow(windowFromX, windowToX);
+            System.arraycopy(rulerOrdinateGridLinesPoints, 0, frame.rulerGridPoints, 0, rulerOrdinateGridLinesPoints.length);
+            frame.rulerLabels.copyFrom(rulerOrdinateLabels);
 
-            float[] pointsXCoordinates = resolver.xValuesForScale();
+            frame.ensureAbscissaLabels(abscissaLabelLayout.count());
+            for (int i = 0; i < frame.abscissaCount; i++) {
+                frame.abscissaLabels[i] = abscissaLabelLayout.label(i);
+                frame.abscissaX[i] = abscissaLabelLayout.x(i);
+            }
 
-            if (forHistory) {
-                historyLinePointsXCoordinates = pointsXCoordinates;
-            } else {
-                mainLinePointsXCoordinates = pointsXCoordinates;
+            frame.metrics.reset();
+            if (geometryMetrics != null) {
+                frame.metrics.add(geometryMetrics);
+                geometryMetrics.reset();
             }
-        }
 
-        private void calculateLinePointsYCoordinates(CoordinateResolver resolver, float[] pointsXCoordinates, int fromIndex, int toIndex, boolean forHistory) {
-            final int viewedPointsCount = toIndex - fromIndex + 1;
+            frames.publish();
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
 
-            for (final ViewedLineModel viewedLineModel : viewedLinesData) {
-                if (!viewedLineModel.enabled) continue;
+        private void releaseHistoryLayer() {
+            if (historyLayer != null) {
+                historyLayerCanvas.setBitmap(null);
+                historyLayer.recycle();
+                historyLayer = null;
+            }
 
-                final float[] linePointsParts = new float[viewedPointsCount * pointsInArrayOffset];
+            releaseCachedHistoryLayer();
+        }
 
-                for (final GraphLineModel fullLine : ordinateValuesSet) {
-                    if (viewedLineModel.chartId.equals(fullLine.id)) {
+        private void showCachedHistoryLayer(@Nullable Bitmap layer) {
+            cachedHistoryLayer = layer;
+            series.setShownHistoryLayer(layer);
+        }
 
-                        for (int i = 0; i < pointsXCoordinates.length - 1; i++) {
-                            int arrayStartPointer = i * pointsInArrayOffset;
-                            linePointsParts[arrayStartPointer] = pointsXCoordinates[i];
-                            linePointsParts[arrayStartPointer + 1] = resolver.yOfOrdinateValue(fullLine.values[i + fromIndex]);
-                            linePointsParts[arrayStartPointer + 2] = pointsXCoordinates[i + 1];
-                            linePointsParts[arrayStartPointer + 3] = resolver.yOfOrdinateValue(fullLine.values[i + fromIndex + 1]);
-                        }
-                    }
-                }
+        private void releaseCachedHistoryLayer() {
+            if (geometryHandler != null) {
+                // the series belong to the geometry thread, their history strips are not cached then
+                return;
+            }
 
-                if (forHistory) {
-                    viewedLineModel.historyLinePointsParts = linePointsParts;
-                } else {
-                    viewedLineModel.mainLinePointsParts = linePointsParts;
+            series.releaseHistoryLayers();
+            if (cachedHistoryLayer != null) {
+                // history lines were not projected for the cached strip
+                showCachedHistoryLayer(null);
+                if (initialized) {
+                    calculateLinePointsYCoordinates(historyCoordinateResolver, historyViewport, historyFromIndex, historyToIndex, true);
                 }
             }
         }
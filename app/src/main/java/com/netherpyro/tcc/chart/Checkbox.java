@@ -41,7 +41,7 @@ class Checkbox extends View {
     @Px
     private int cbRadius = Util.dpToPx(DEFAULT_CB_RADIUS_DP);
 
-    private final String text;
+    private String text;
     private boolean drawDivider;
     private boolean checked = true;
 
@@ -97,6 +97,26 @@ class Checkbox extends View {
         paint.setTextSize(textSize);
     }
 
+    /**
+     * Shows another series in a recycled row, the row is checked again without an animation.
+     */
+    void bind(@ColorInt int cbColor, String text, boolean drawDivider) {
+        if (animator != null) {
+            animator.cancel();
+            animator = null;
+        }
+
+        this.cbColor = cbColor;
+        this.text = text;
+        this.drawDivider = drawDivider;
+        checked = true;
+
+        cbRectAnim.setEmpty();
+        System.arraycopy(checkLines, 0, checkLinesAnim, 0, checkLines.length);
+
+        invalidate();
+    }
+
     void toggleChecked() {
         checked = !checked;
 
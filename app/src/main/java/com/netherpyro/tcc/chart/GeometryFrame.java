@@ -0,0 +1,131 @@
+package com.netherpyro.tcc.chart;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Everything the graph draws for one state of its geometry: lines, grid and labels.
+ * Frames are filled on the geometry thread and handed over to the main thread through an {@link Exchange}.
+ */
+final class GeometryFrame {
+
+    // data binding of the view the frame was filled for
+    int binding = 0;
+    int seriesCount = 0;
+    boolean[] visible = new boolean[0];
+    int[] colors = new int[0];
+    SegmentRing.Snapshot[] mainLines = new SegmentRing.Snapshot[0];
+    SegmentRing.Snapshot[] historyLines = new SegmentRing.Snapshot[0];
+    // history lines are only copied when they changed since the frame was filled the last time
+    int historyVersion = -1;
+
+    final float[] rulerGridPoints;
+    final RulerLabels rulerLabels;
+
+    int abscissaCount = 0;
+    String[] abscissaLabels = new String[0];
+    float[] abscissaX = new float[0];
+
+    // geometry work behind the frame, only filled while metrics are enabled
+    final ChartFrameMetrics metrics = new ChartFrameMetrics();
+
+    GeometryFrame(int rulerGridPointsLength, int rulerLabelsCount) {
+        rulerGridPoints = new float[rulerGridPointsLength];
+        rulerLabels = new RulerLabels(rulerLabelsCount);
+    }
+
+    void ensureSeries(int count) {
+        if (mainLines.length < count) {
+            final SegmentRing.Snapshot[] newMainLines = new SegmentRing.Snapshot[count];
+            final SegmentRing.Snapshot[] newHistoryLines = new SegmentRing.Snapshot[count];
+            System.arraycopy(mainLines, 0, newMainLines, 0, mainLines.length);
+            System.arraycopy(historyLines, 0, newHistoryLines, 0, historyLines.length);
+            for (int i = mainLines.length; i < count; i++) {
+                newMainLines[i] = new SegmentRing.Snapshot();
+                newHistoryLines[i] = new SegmentRing.Snapshot();
+            }
+
+            mainLines = newMainLines;
+            historyLines = newHistoryLines;
+            visible = new boolean[count];
+            colors = new int[count];
+            // new history snapshots are empty
+            historyVersion = -1;
+        }
+
+        seriesCount = count;
+    }
+
+    void ensureAbscissaLabels(int count) {
+        if (abscissaLabels.length < count) {
+            abscissaLabels = new String[count * 2];
+            abscissaX = new float[count * 2];
+        }
+
+        abscissaCount = count;
+    }
+
+    /**
+     * Triple buffer between the geometry thread and the main thread. The producer fills the back frame
+     * while the main thread draws the front one, the latest published frame waits in between and replaces
+     * an older one that was not drawn yet. Only references are swapped under the lock, never frame contents.
+     */
+    static final class Exchange {
+
+        private final int rulerGridPointsLength;
+        private final int rulerLabelsCount;
+
+        // producer
+        private GeometryFrame back = null;
+        // main thread
+        private GeometryFrame front = null;
+        private GeometryFrame ready = null;
+        private GeometryFrame spare = null;
+
+        Exchange(int rulerGridPointsLength, int rulerLabelsCount) {
+            this.rulerGridPointsLength = rulerGridPointsLength;
+            this.rulerLabelsCount = rulerLabelsCount;
+        }
+
+        /**
+         * @return frame to fill, producer only
+         */
+        GeometryFrame back() {
+            if (back == null) {
+                back = new GeometryFrame(rulerGridPointsLength, rulerLabelsCount);
+            }
+
+            return back;
+        }
+
+        /**
+         * Hands the filled back frame over, producer only.
+         */
+        synchronized void publish() {
+            final GeometryFrame dropped = ready;
+            ready = back;
+
+            if (dropped != null) {
+                // the work for the dropped frame is reported with the one that replaces it
+                ready.metrics.add(dropped.metrics);
+                back = dropped;
+            } else {
+                back = spare;
+                spare = null;
+            }
+        }
+
+        /**
+         * @return latest published frame, main thread only
+         */
+        @Nullable
+        synchronized GeometryFrame swap() {
+            if (ready != null) {
+                spare = front;
+                front = ready;
+                ready = null;
+            }
+
+            return front;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.netherpyro.tcc.chart;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+
+/**
+ * Thread shared by the charts that compute their geometry off the main thread,
+ * see {@link ChartView#setAsyncGeometry(boolean)}.
+ */
+final class GeometryThread {
+
+    private static Handler handler = null;
+
+    private GeometryThread() {
+    }
+
+    static synchronized Handler handler() {
+        if (handler == null) {
+            final HandlerThread thread = new HandlerThread("ChartGeometry", Process.THREAD_PRIORITY_DISPLAY);
+            thread.start();
+            handler = new Handler(thread.getLooper());
+        }
+
+        return handler;
+    }
+}
@@ -0,0 +1,162 @@
+package com.netherpyro.tcc.chart;
+
+import android.view.Choreographer;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * Drives ordinate range transitions of the main and history drawports from {@link Choreographer} frames.
+ * A new target retargets the running transition from its current value instead of stacking animators,
+ * and the listener is called at most once per frame for everything that changed.
+ */
+final class OrdinateRangeAnimator implements Choreographer.FrameCallback {
+
+    interface Listener {
+        void onOrdinateRangeFrame(boolean mainChanged, boolean historyChanged);
+    }
+
+    final Transition mainMin = new Transition();
+    final Transition mainMax = new Transition();
+    final Transition historyMin = new Transition();
+    final Transition historyMax = new Transition();
+
+    // of the thread that schedules the first frame, every other call has to come from that thread too
+    private Choreographer choreographer = null;
+    // ease-out only, so frequent retargets during a drag don't restart with a slow acceleration
+    private final Interpolator interpolator = new DecelerateInterpolator();
+    private final long durationNanos;
+    private final Listener listener;
+
+    private boolean scheduled = false;
+    private boolean paused = false;
+
+    OrdinateRangeAnimator(long durationMillis, Listener listener) {
+        this.durationNanos = durationMillis * 1_000_000L;
+        this.listener = listener;
+    }
+
+    /**
+     * @return false if the range is already there or on the way to the target, so nothing was scheduled
+     */
+    boolean animateMain(float min, float max) {
+        // no short-circuit, both bounds have to be retargeted
+        final boolean retargeted = mainMin.retarget(min) | mainMax.retarget(max);
+        if (retargeted) {
+            schedule();
+        }
+        return retargeted;
+    }
+
+    /**
+     * @return false if the range is already there or on the way to the target, so nothing was scheduled
+     */
+    boolean animateHistory(float min, float max) {
+        final boolean retargeted = historyMin.retarget(min) | historyMax.retarget(max);
+        if (retargeted) {
+            schedule();
+        }
+        return retargeted;
+    }
+
+    void pause() {
+        paused = true;
+        if (choreographer != null) {
+            choreographer.removeFrameCallback(this);
+        }
+        scheduled = false;
+    }
+
+    void resume() {
+        paused = false;
+        if (isRunning()) {
+            schedule();
+        }
+    }
+
+    boolean isMainRunning() {
+        return mainMin.running || mainMax.running;
+    }
+
+    boolean isHistoryRunning() {
+        return historyMin.running || historyMax.running;
+    }
+
+    boolean isRunning() {
+        return mainMin.running || mainMax.running || historyMin.running || historyMax.running;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        scheduled = false;
+
+        // no short-circuit, every transition has to step
+        final boolean mainChanged = mainMin.step(frameTimeNanos) | mainMax.step(frameTimeNanos);
+        final boolean historyChanged = historyMin.step(frameTimeNanos) | historyMax.step(frameTimeNanos);
+
+        if (mainChanged || historyChanged) {
+            listener.onOrdinateRangeFrame(mainChanged, historyChanged);
+        }
+
+        if (isRunning()) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        if (!scheduled && !paused) {
+            if (choreographer == null) {
+                choreographer = Choreographer.getInstance();
+            }
+            scheduled = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    final class Transition {
+        float value = 0f;
+        private float from;
+        private float to;
+        private long startNanos;
+        private boolean running = false;
+        private boolean updatePending = false;
+
+        private boolean retarget(float target) {
+            if (target == to && (running || value == to)) {
+                return false;
+            }
+
+            from = value;
+            to = target;
+            startNanos = -1; // starts on the next frame
+            running = true;
+            updatePending = true;
+            return true;
+        }
+
+        /**
+         * @return true if the value changed or the transition has been retargeted since the last frame
+         */
+        private boolean step(long frameTimeNanos) {
+            if (!running) {
+                return false;
+            }
+
+            if (startNanos < 0) {
+                startNanos = frameTimeNanos;
+            }
+
+            final float fraction = Math.min(1f, (frameTimeNanos - startNanos) / (float) durationNanos);
+            final float previous = value;
+            value = from + (to - from) * interpolator.getInterpolation(fraction);
+
+            if (fraction >= 1f) {
+                value = to;
+                running = false;
+            }
+
+            final boolean changed = updatePending || value != previous;
+            updatePending = false;
+            return changed;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.netherpyro.tcc.chart;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+
+/**
+ * Thread shared by the charts that read windows of a {@link PagedChart}, so reads of a chart never run concurrently
+ * and never block the threads that draw.
+ */
+final class PageLoadThread {
+
+    private static Handler handler = null;
+
+    private PageLoadThread() {
+    }
+
+    static synchronized Handler handler() {
+        if (handler == null) {
+            final HandlerThread thread = new HandlerThread("ChartPageLoad", Process.THREAD_PRIORITY_BACKGROUND);
+            thread.start();
+            handler = new Handler(thread.getLooper());
+        }
+
+        return handler;
+    }
+}
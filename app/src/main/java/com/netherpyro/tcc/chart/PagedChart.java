@@ -0,0 +1,232 @@
+package com.netherpyro.tcc.chart;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.collection.LruCache;
+
+/**
+ * Chart over a {@link ChartDataSource} that keeps only a summary and a window of raw points in memory.
+ * <p>
+ * The summary splits the data into at most {@link #SUMMARY_BUCKETS} buckets and keeps the two extremums of every
+ * bucket in their time order, like a lod level. It is drawn by the history strip and by windows that cover
+ * more than {@link #MAX_WINDOW_POINTS} points. Narrower windows are drawn from raw points which are read
+ * page by page through a bounded cache, together with a margin on each side so panning does not read on every move.
+ * Windows are loaded on the {@link PageLoadThread}, one at a time.
+ */
+public final class PagedChart {
+
+    static final int MAX_WINDOW_POINTS = 1 << 17;
+
+    private static final int SUMMARY_BUCKETS = 1 << 18;
+    private static final int PAGE_SIZE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SIZE_SHIFT;
+    // points of all series, 8 MB of values
+    private static final int PAGE_CACHE_POINTS = 1 << 21;
+
+    private final ChartDataSource source;
+    private final int pointCount;
+    final ChartData summary;
+
+    private final LruCache<Long, float[]> valuePages = new LruCache<Long, float[]>(PAGE_CACHE_POINTS) {
+        @Override
+        protected int sizeOf(Long key, float[] page) {
+            return page.length;
+        }
+    };
+    private final LruCache<Integer, long[]> timestampPages = new LruCache<Integer, long[]>(PAGE_CACHE_POINTS / 2) {
+        @Override
+        protected int sizeOf(Integer key, long[] page) {
+            return page.length;
+        }
+    };
+
+    /**
+     * Raw points {@code from .. from + count - 1} of all series.
+     */
+    static final class Window {
+
+        final int from;
+        final int count;
+        final long[] timestamps;
+        final List<GraphLineModel> lines;
+
+        private Window(int from, int count, long[] timestamps, List<GraphLineModel> lines) {
+            this.from = from;
+            this.count = count;
+            this.timestamps = timestamps;
+            this.lines = lines;
+        }
+
+        boolean covers(int fromIndex, int toIndex) {
+            return fromIndex >= from && toIndex < from + count;
+        }
+    }
+
+    private PagedChart(ChartDataSource source, ChartData summary) {
+        this.source = source;
+        this.pointCount = source.pointCount();
+        this.summary = summary;
+    }
+
+    /**
+     * Reads the whole source once to build the summary.
+     */
+    @WorkerThread
+    public static PagedChart open(@NonNull ChartDataSource source) {
+        return new PagedChart(source, summarize(source));
+    }
+
+    public int pointCount() {
+        return pointCount;
+    }
+
+    /**
+     * Reads the range with a margin of half its size on each side, aligned to whole pages. The window spans
+     * the same number of pages for every range of the same size, away from the end of the data, so a window
+     * of a pan at the same zoom fits into the arrays of the previous one. The lines come with their range
+     * index and lod built, so nothing is derived from them on the thread that draws them.
+     *
+     * @param fromIndex first point, inclusive
+     * @param toIndex   last point, inclusive
+     * @param recycled  window that is not drawn anymore, its arrays are refilled when they have the size needed
+     */
+    @WorkerThread
+    Window load(int fromIndex, int toIndex, @Nullable Window recycled) {
+        final int margin = (toIndex - fromIndex + 1) / 2;
+        // one page more than the range and the margins take, for the alignment of the first page
+        final int span = (((toIndex - fromIndex + 1 + 2 * margin + PAGE_SIZE - 1) >> PAGE_SIZE_SHIFT) + 1) << PAGE_SIZE_SHIFT;
+        int from = (Math.max(0, fromIndex - margin) >> PAGE_SIZE_SHIFT) << PAGE_SIZE_SHIFT;
+        int to = from + span;
+        if (to > pointCount) {
+            // windows at the end of the data end with it, so they have the same size too
+            from = (Math.max(0, pointCount - span) >> PAGE_SIZE_SHIFT) << PAGE_SIZE_SHIFT;
+            to = pointCount;
+        }
+        final int count = to - from;
+
+        final boolean reuse = recycled != null && recycled.count == count && recycled.lines.size() == source.seriesCount();
+        final long[] timestamps = reuse ? recycled.timestamps : new long[count];
+        for (int page = from >> PAGE_SIZE_SHIFT; page << PAGE_SIZE_SHIFT < to; page++) {
+            final long[] pageTimestamps = timestampPage(page);
+            final int pageStart = page << PAGE_SIZE_SHIFT;
+            System.arraycopy(pageTimestamps, 0, timestamps, pageStart - from, Math.min(pageTimestamps.length, to - pageStart));
+        }
+
+        final List<GraphLineModel> lines = reuse ? recycled.lines : new ArrayList<GraphLineModel>(source.seriesCount());
+        for (int series = 0; series < source.seriesCount(); series++) {
+            final GraphLineModel line = reuse
+                    ? lines.get(series)
+                    : new GraphLineModel(source.seriesId(series), source.seriesName(series), new float[count], source.seriesColor(series));
+            for (int page = from >> PAGE_SIZE_SHIFT; page << PAGE_SIZE_SHIFT < to; page++) {
+                final float[] pageValues = valuePage(series, page);
+                final int pageStart = page << PAGE_SIZE_SHIFT;
+                System.arraycopy(pageValues, 0, line.values, pageStart - from, Math.min(pageValues.length, to - pageStart));
+            }
+
+            line.prepare(reuse);
+            if (!reuse) {
+                lines.add(line);
+            }
+        }
+
+        return new Window(from, count, timestamps, lines);
+    }
+
+    private float[] valuePage(int series, int page) {
+        final Long key = ((long) series << 32) | page;
+        float[] values = valuePages.get(key);
+        if (values == null) {
+            final int pageStart = page << PAGE_SIZE_SHIFT;
+            values = new float[Math.min(PAGE_SIZE, pointCount - pageStart)];
+            source.readRange(series, pageStart, pageStart + values.length, values);
+            valuePages.put(key, values);
+        }
+
+        return values;
+    }
+
+    private long[] timestampPage(int page) {
+        long[] timestamps = timestampPages.get(page);
+        if (timestamps == null) {
+            final int pageStart = page << PAGE_SIZE_SHIFT;
+            timestamps = new long[Math.min(PAGE_SIZE, pointCount - pageStart)];
+            source.readTimestamps(pageStart, pageStart + timestamps.length, timestamps);
+            timestampPages.put(page, timestamps);
+        }
+
+        return timestamps;
+    }
+
+    /**
+     * Streams the source page by page, pages are not cached so the scan does not evict anything.
+     */
+    private static ChartData summarize(ChartDataSource source) {
+        final int pointCount = source.pointCount();
+        final int bucketSize = Math.max(2, (pointCount + SUMMARY_BUCKETS - 1) / SUMMARY_BUCKETS);
+        final int buckets = (pointCount + bucketSize - 1) / bucketSize;
+
+        // a bucket is drawn as its first point and the one in the middle
+        final long[] summaryTimestamps = new long[buckets * 2];
+        final long[] pageTimestamps = new long[PAGE_SIZE];
+        for (int pageStart = 0; pageStart < pointCount; pageStart += PAGE_SIZE) {
+            final int pageCount = Math.min(PAGE_SIZE, pointCount - pageStart);
+            source.readTimestamps(pageStart, pageStart + pageCount, pageTimestamps);
+
+            for (int i = 0; i < pageCount; i++) {
+                final int index = pageStart + i;
+                final int inBucket = index % bucketSize;
+                if (inBucket == 0) {
+                    summaryTimestamps[(index / bucketSize) * 2] = pageTimestamps[i];
+                    // the last bucket may be too short to have a middle
+                    summaryTimestamps[(index / bucketSize) * 2 + 1] = pageTimestamps[i];
+                } else if (inBucket == bucketSize / 2) {
+                    summaryTimestamps[(index / bucketSize) * 2 + 1] = pageTimestamps[i];
+                }
+            }
+        }
+
+        final List<GraphLineModel> lines = new ArrayList<>(source.seriesCount());
+        final float[] pageValues = new float[PAGE_SIZE];
+        for (int series = 0; series < source.seriesCount(); series++) {
+            final float[] values = new float[buckets * 2];
+            float min = 0f;
+            float max = 0f;
+            int minIndex = 0;
+            int maxIndex = 0;
+
+            for (int pageStart = 0; pageStart < pointCount; pageStart += PAGE_SIZE) {
+                final int pageCount = Math.min(PAGE_SIZE, pointCount - pageStart);
+                source.readRange(series, pageStart, pageStart + pageCount, pageValues);
+
+                for (int i = 0; i < pageCount; i++) {
+                    final int index = pageStart + i;
+                    final float value = pageValues[i];
+
+                    if (index % bucketSize == 0 || value < min) {
+                        min = value;
+                        minIndex = index;
+                    }
+
+                    if (index % bucketSize == 0 || value > max) {
+                        max = value;
+                        maxIndex = index;
+                    }
+
+                    if (index % bucketSize == bucketSize - 1 || index == pointCount - 1) {
+                        final int bucket = index / bucketSize;
+                        values[bucket * 2] = minIndex <= maxIndex ? min : max;
+                        values[bucket * 2 + 1] = minIndex <= maxIndex ? max : min;
+                    }
+                }
+            }
+
+            lines.add(new GraphLineModel(source.seriesId(series), source.seriesName(series), values, source.seriesColor(series)));
+        }
+
+        return new ChartData(summaryTimestamps, lines);
+    }
+}
@@ -0,0 +1,41 @@
+package com.netherpyro.tcc.chart;
+
+import android.graphics.Paint;
+import android.os.Build;
+import android.text.format.DateFormat;
+
+import java.util.Locale;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Labels measured with the paint they are drawn with, dates in the best pattern of the locale where available.
+ */
+final class PaintLabelStyle implements LabelStyle {
+
+    private static final String SKELETON = "MMMd";
+    private static final String FALLBACK_PATTERN = "MMM d";
+
+    private final Paint paint;
+
+    PaintLabelStyle(@NonNull Paint paint) {
+        this.paint = paint;
+    }
+
+    @Override
+    public float measureText(String text) {
+        return paint.measureText(text);
+    }
+
+    @Override
+    public float measureText(char[] text, int start, int count) {
+        return paint.measureText(text, start, count);
+    }
+
+    @Override
+    public String datePattern(Locale locale) {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2
+                ? DateFormat.getBestDateTimePattern(locale, SKELETON)
+                : FALLBACK_PATTERN;
+    }
+}
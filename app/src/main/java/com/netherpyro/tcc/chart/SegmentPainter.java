@@ -0,0 +1,47 @@
+package com.netherpyro.tcc.chart;
+
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+
+/**
+ * Draws segments of the rings on a canvas, the transform of a ring is applied with a canvas matrix.
+ */
+final class SegmentPainter implements SegmentCanvas {
+
+    private final Matrix matrix = new Matrix();
+    private Canvas canvas;
+    private Paint paint;
+    private float strokeWidth;
+
+    /**
+     * @return this painter drawing on the canvas with the paint
+     */
+    SegmentPainter on(Canvas canvas, Paint paint) {
+        this.canvas = canvas;
+        this.paint = paint;
+        return this;
+    }
+
+    @Override
+    public void transform(float scaleX, float scaleY, float translateX, float translateY, float strokeScale) {
+        matrix.setScale(scaleX, scaleY);
+        matrix.postTranslate(translateX, translateY);
+        strokeWidth = paint.getStrokeWidth();
+
+        canvas.save();
+        canvas.concat(matrix);
+        paint.setStrokeWidth(strokeWidth / strokeScale);
+    }
+
+    @Override
+    public void drawLines(float[] segments, int offset, int count) {
+        canvas.drawLines(segments, offset, count, paint);
+    }
+
+    @Override
+    public void restore() {
+        paint.setStrokeWidth(strokeWidth);
+        canvas.restore();
+    }
+}
@@ -0,0 +1,293 @@
+package com.netherpyro.tcc.chart;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import androidx.annotation.Nullable;
+import androidx.collection.LruCache;
+
+/**
+ * Series of a chart addressed by dense int handles, visibility is a bit mask over the handles.
+ * Data derived from a set of visible series is cached per visibility mask,
+ * so toggling a series back and forth is served from the cache.
+ */
+final class SeriesRegistry {
+
+    private static final int MASK_CACHE_SIZE = 4;
+    // with fewer visible series querying each range index is cheaper than keeping an envelope
+    private static final int ENVELOPE_MIN_SERIES = 8;
+
+    // indexed list, iterators would be allocated on every frame; entries past the size are kept for the next
+    // data, so a recycled view reuses the segment buffers of its series
+    private final List<ViewedLineModel> lines = new ArrayList<>();
+    private int size = 0;
+    private final BitSet visibility = new BitSet();
+    private final LruCache<BitSet, MaskCache> maskCaches = new LruCache<BitSet, MaskCache>(MASK_CACHE_SIZE) {
+        @Override
+        protected void entryRemoved(boolean evicted, BitSet key, MaskCache oldValue, MaskCache newValue) {
+            if (oldValue.historyLayer != null) {
+                recycleHistoryLayer(oldValue.historyLayer);
+                oldValue.historyLayer = null;
+            }
+        }
+    };
+    // values change while drawn, nothing is derived from them per mask
+    private boolean mutable = false;
+    // history strip of a mask cache that is on screen, it is recycled once it is not shown if its cache is gone
+    private Bitmap shownHistoryLayer = null;
+    private boolean shownHistoryLayerReleased = false;
+
+    /**
+     * Data derived from one set of visible series.
+     */
+    static final class MaskCache {
+
+        private boolean historyRangeCalculated = false;
+        private float historyMinValue;
+        private float historyMaxValue;
+
+        // per point extremums over all visible series
+        private RangeMinMaxIndex lowerEnvelope = null;
+        private RangeMinMaxIndex upperEnvelope = null;
+
+        // settled history strip, owned by the cache
+        Bitmap historyLayer = null;
+    }
+
+    /**
+     * Drops all series, their line models are kept and reset by the next registrations.
+     */
+    void clear() {
+        size = 0;
+        visibility.clear();
+        maskCaches.evictAll();
+    }
+
+    /**
+     * @return handle of the series, handles are assigned in registration order starting from 0
+     */
+    int register(GraphLineModel line) {
+        final int handle = size++;
+        if (handle < lines.size()) {
+            lines.get(handle).reset(line);
+        } else {
+            lines.add(new ViewedLineModel(line));
+        }
+        visibility.set(handle);
+
+        return handle;
+    }
+
+    /**
+     * Binds the handle to other lines of the same series, visibility stays.
+     */
+    void replace(int handle, GraphLineModel line, GraphLineModel summary) {
+        final ViewedLineModel viewed = lines.get(handle);
+        if (summary != viewed.summary) {
+            maskCaches.evictAll();
+        } else if (line != viewed.line) {
+            // history data stays valid
+            for (MaskCache cache : maskCaches.snapshot().values()) {
+                cache.lowerEnvelope = null;
+                cache.upperEnvelope = null;
+            }
+        }
+
+        viewed.bind(line, summary);
+    }
+
+    int size() {
+        return size;
+    }
+
+    ViewedLineModel get(int handle) {
+        if (handle >= size) {
+            throw new IndexOutOfBoundsException("Handle " + handle + " of " + size + " series");
+        }
+
+        return lines.get(handle);
+    }
+
+    boolean isVisible(int handle) {
+        return visibility.get(handle);
+    }
+
+    void setMutable(boolean mutable) {
+        if (this.mutable != mutable) {
+            this.mutable = mutable;
+            maskCaches.evictAll();
+        }
+    }
+
+    boolean isMutable() {
+        return mutable;
+    }
+
+    void toggle(int handle) {
+        visibility.flip(handle);
+    }
+
+    /**
+     * @return cache of the current visibility mask
+     */
+    MaskCache visibleCache() {
+        // the live mask is only used for the lookup, a stored key must not change
+        MaskCache cache = maskCaches.get(visibility);
+        if (cache == null) {
+            cache = new MaskCache();
+            maskCaches.put((BitSet) visibility.clone(), cache);
+        }
+
+        return cache;
+    }
+
+    /**
+     * Min and max of the summaries of all visible series over the whole data, cached per visibility mask.
+     *
+     * @param result min and max are written at indices 0 and 1
+     */
+    void historyMinMax(int fromIndex, int toIndex, float[] result) {
+        if (mutable) {
+            summaryMinMax(fromIndex, toIndex, result);
+            return;
+        }
+
+        final MaskCache cache = visibleCache();
+        if (!cache.historyRangeCalculated) {
+            summaryMinMax(fromIndex, toIndex, result);
+            cache.historyMinValue = result[0];
+            cache.historyMaxValue = result[1];
+            cache.historyRangeCalculated = true;
+        }
+
+        result[0] = cache.historyMinValue;
+        result[1] = cache.historyMaxValue;
+    }
+
+    /**
+     * Min and max of all visible series in the range, both bounds inclusive.
+     *
+     * @param result min and max are written at indices 0 and 1
+     */
+    void minMax(int fromIndex, int toIndex, float[] result) {
+        float maxValue = -Float.MAX_VALUE;
+        float minValue = Float.MAX_VALUE;
+
+        final MaskCache cache = mutable ? null : visibleCache();
+        if (cache != null && cache.lowerEnvelope == null && visibility.cardinality() >= ENVELOPE_MIN_SERIES) {
+            buildEnvelopes(cache);
+        }
+
+        if (cache != null && cache.lowerEnvelope != null) {
+            maxValue = Math.max(maxValue, cache.upperEnvelope.max(fromIndex, toIndex));
+            minValue = Math.min(minValue, cache.lowerEnvelope.min(fromIndex, toIndex));
+        } else {
+            for (int handle = visibility.nextSetBit(0); handle >= 0; handle = visibility.nextSetBit(handle + 1)) {
+                final RangeExtremums extremums = lines.get(handle).line.extremums();
+                final float lineMaxValue = extremums.max(fromIndex, toIndex);
+                final float lineMinValue = extremums.min(fromIndex, toIndex);
+
+                if (lineMaxValue > maxValue) {
+                    maxValue = lineMaxValue;
+                }
+
+                if (lineMinValue < minValue) {
+                    minValue = lineMinValue;
+                }
+            }
+        }
+
+        result[0] = minValue;
+        result[1] = maxValue;
+    }
+
+    private void summaryMinMax(int fromIndex, int toIndex, float[] result) {
+        float maxValue = -Float.MAX_VALUE;
+        float minValue = Float.MAX_VALUE;
+
+        for (int handle = visibility.nextSetBit(0); handle >= 0; handle = visibility.nextSetBit(handle + 1)) {
+            final RangeExtremums extremums = lines.get(handle).summary.extremums();
+            final float lineMaxValue = extremums.max(fromIndex, toIndex);
+            final float lineMinValue = extremums.min(fromIndex, toIndex);
+
+            if (lineMaxValue > maxValue) {
+                maxValue = lineMaxValue;
+            }
+
+            if (lineMinValue < minValue) {
+                minValue = lineMinValue;
+            }
+        }
+
+        result[0] = minValue;
+        result[1] = maxValue;
+    }
+
+    /**
+     * Drops the history strips of all masks, they are bound to the view size.
+     */
+    void releaseHistoryLayers() {
+        for (MaskCache cache : maskCaches.snapshot().values()) {
+            if (cache.historyLayer != null) {
+                recycleHistoryLayer(cache.historyLayer);
+                cache.historyLayer = null;
+            }
+        }
+    }
+
+    /**
+     * @param layer history strip of a mask cache drawn by the view, null when the view draws its own layer
+     */
+    void setShownHistoryLayer(@Nullable Bitmap layer) {
+        if (layer == shownHistoryLayer) {
+            return;
+        }
+
+        if (shownHistoryLayerReleased) {
+            shownHistoryLayer.recycle();
+        }
+        shownHistoryLayer = layer;
+        shownHistoryLayerReleased = false;
+    }
+
+    private void recycleHistoryLayer(Bitmap layer) {
+        if (layer == shownHistoryLayer) {
+            // still drawn, recycled when the view stops showing it
+            shownHistoryLayerReleased = true;
+        } else {
+            layer.recycle();
+        }
+    }
+
+    private void buildEnvelopes(MaskCache cache) {
+        int pointsCount = 0;
+        for (int handle = visibility.nextSetBit(0); handle >= 0; handle = visibility.nextSetBit(handle + 1)) {
+            pointsCount = Math.max(pointsCount, lines.get(handle).line.values.length);
+        }
+
+        final float[] lower = new float[pointsCount];
+        final float[] upper = new float[pointsCount];
+        Arrays.fill(lower, Float.MAX_VALUE);
+        Arrays.fill(upper, -Float.MAX_VALUE);
+
+        for (int handle = visibility.nextSetBit(0); handle >= 0; handle = visibility.nextSetBit(handle + 1)) {
+            final float[] values = lines.get(handle).line.values;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] < lower[i]) {
+                    lower[i] = values[i];
+                }
+
+                if (values[i] > upper[i]) {
+                    upper[i] = values[i];
+                }
+            }
+        }
+
+        cache.lowerEnvelope = new RangeMinMaxIndex(lower);
+        cache.upperEnvelope = new RangeMinMaxIndex(upper);
+    }
+}
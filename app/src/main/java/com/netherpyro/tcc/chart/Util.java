@@ -4,14 +4,6 @@ import android.content.res.Resources;
 import android.util.DisplayMetrics;
 import android.util.TypedValue;
 
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
-import java.util.Locale;
-
-import androidx.annotation.NonNull;
-
 /**
  * @author mmikhailov on 17/03/2019.
  */
@@ -26,15 +18,4 @@ class Util {
         DisplayMetrics metrics = Resources.getSystem().getDisplayMetrics();
         return (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, sp, metrics);
     }
-
-    static List<String> convertTimestampsToLabels(@NonNull List<Long> timestampList) {
-        List<String> result = new ArrayList<>(timestampList.size());
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM d", Locale.getDefault());
-
-        for (Long timestamp : timestampList) {
-            result.add(dateFormat.format(new Date(timestamp)));
-        }
-
-        return result;
-    }
 }
@@ -7,16 +7,48 @@ import androidx.annotation.ColorInt;
  */
 final class ViewedLineModel {
 
-    final String chartId;
+    String chartId;
     @ColorInt
-    final int color;
+    int color;
+    // drawn by the main chart
+    GraphLineModel line;
+    // drawn by the history strip, the same line unless the data is paged
+    GraphLineModel summary;
 
-    float[] mainLinePointsParts;
-    float[] historyLinePointsParts;
-    boolean enabled = true;
+    final SegmentRing mainLine = new SegmentRing();
+    final SegmentRing historyLine = new SegmentRing();
 
-    ViewedLineModel(String chartId, @ColorInt int color) {
-        this.chartId = chartId;
-        this.color = color;
+    ViewedLineModel(GraphLineModel line) {
+        this.chartId = line.id;
+        this.color = line.color;
+        this.line = line;
+        this.summary = line;
+    }
+
+    /**
+     * Takes another series, e.g. of the next chart bound to a recycled view. The rings keep their buffers.
+     */
+    void reset(GraphLineModel line) {
+        this.chartId = line.id;
+        this.color = line.color;
+        this.line = line;
+        this.summary = line;
+        mainLine.reset();
+        historyLine.reset();
+    }
+
+    /**
+     * Binds other lines of the same series, geometry of a replaced line is dropped.
+     */
+    void bind(GraphLineModel line, GraphLineModel summary) {
+        if (line != this.line) {
+            this.line = line;
+            mainLine.reset();
+        }
+
+        if (summary != this.summary) {
+            this.summary = summary;
+            historyLine.reset();
+        }
     }
 }
@@ -1,8 +1,10 @@
 package com.netherpyro.tcc.util;
 
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Scanner;
 
 public class AssetsFileReader {
@@ -12,4 +14,15 @@ public class AssetsFileReader {
         return s.hasNext() ? s.next() : "";
     }
 
+    public InputStream open(final Context context, final String fileName) throws IOException {
+        return context.getAssets().open(fileName);
+    }
+
+    /**
+     * The asset has to be stored uncompressed, see {@code aaptOptions.noCompress} in the build script.
+     */
+    public AssetFileDescriptor openFd(final Context context, final String fileName) throws IOException {
+        return context.getAssets().openFd(fileName);
+    }
+
 }
\ No newline at end of file
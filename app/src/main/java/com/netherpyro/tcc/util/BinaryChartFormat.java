@@ -0,0 +1,35 @@
+package com.netherpyro.tcc.util;
+
+import java.nio.charset.Charset;
+
+/**
+ * Layout of the little-endian binary chart file.
+ * <pre>
+ * header:        int magic, int version, int chartCount, int reserved
+ * offset table:  long[chartCount] absolute offsets of the chart blocks
+ * chart block:   int pointCount, int seriesCount,
+ *                seriesCount * (int color, ushort idLength, byte[] id, ushort nameLength, byte[] name),
+ *                padding to 8 bytes,
+ *                long[pointCount] abscissa,
+ *                seriesCount * float[pointCount] ordinates (in series table order),
+ *                padding to 8 bytes
+ * </pre>
+ */
+final class BinaryChartFormat {
+
+    static final int MAGIC = 0x42434354; // "TCCB" in file byte order
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int ALIGNMENT = 8;
+    // lengths of the series labels are unsigned shorts
+    static final int MAX_LABEL_BYTES = 0xFFFF;
+
+    static final Charset CHARSET = Charset.forName("UTF-8");
+
+    private BinaryChartFormat() {
+    }
+
+    static long align(long position) {
+        return (position + ALIGNMENT - 1) & ~(ALIGNMENT - 1);
+    }
+}
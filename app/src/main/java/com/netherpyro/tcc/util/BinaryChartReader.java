@@ -0,0 +1,192 @@
+package com.netherpyro.tcc.util;
+
+import android.content.res.AssetFileDescriptor;
+
+import com.netherpyro.tcc.chart.ChartData;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads charts stored in {@link BinaryChartFormat} through read-only memory mappings, one per column.
+ * Columns are exposed as {@link LongBuffer}/{@link FloatBuffer} views over the mappings, nothing is parsed.
+ * Offsets are longs, so the file may exceed 2 GB, a single column is limited to 2 GB.
+ */
+public class BinaryChartReader {
+
+    /**
+     * Copies every column into the heap, see {@link MappedChart#toChartData()}.
+     * Use {@link #map(File)} to keep the columns off the heap.
+     */
+    public List<ChartData> read(File file) throws IOException {
+        return toChartData(map(file));
+    }
+
+    /**
+     * Copies every column into the heap, see {@link MappedChart#toChartData()}.
+     */
+    public List<ChartData> read(AssetFileDescriptor descriptor) throws IOException {
+        return toChartData(map(descriptor));
+    }
+
+    public List<MappedChart> map(File file) throws IOException {
+        final FileInputStream in = new FileInputStream(file);
+
+        try {
+            return map(in.getChannel(), 0, in.getChannel().size());
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * The asset has to be stored uncompressed, see {@code aaptOptions.noCompress} in the build script.
+     */
+    public List<MappedChart> map(AssetFileDescriptor descriptor) throws IOException {
+        final FileInputStream in = descriptor.createInputStream();
+
+        try {
+            return map(in.getChannel(), descriptor.getStartOffset(), descriptor.getLength());
+        } finally {
+            in.close();
+        }
+    }
+
+    private List<ChartData> toChartData(List<MappedChart> mappedCharts) {
+        final List<ChartData> charts = new ArrayList<>(mappedCharts.size());
+        for (MappedChart chart : mappedCharts) {
+            charts.add(chart.toChartData());
+        }
+        return charts;
+    }
+
+    /**
+     * @param start  position of the file in the channel
+     * @param length size of the file
+     */
+    private List<MappedChart> map(FileChannel channel, long start, long length) throws IOException {
+        try {
+            final ByteBuffer header = read(channel, start, length, 0, BinaryChartFormat.HEADER_SIZE);
+            if (header.getInt() != BinaryChartFormat.MAGIC) {
+                throw new IOException("Not a binary chart file");
+            }
+
+            final int version = header.getInt();
+            if (version != BinaryChartFormat.VERSION) {
+                throw new IOException("Unsupported binary chart version " + version);
+            }
+
+            final int chartCount = header.getInt();
+            header.getInt(); // reserved
+            if (chartCount < 0) {
+                throw new IOException("Corrupted binary chart file");
+            }
+
+            final ByteBuffer offsets = read(channel, start, length, BinaryChartFormat.HEADER_SIZE, 8L * chartCount);
+            final List<MappedChart> charts = new ArrayList<>(chartCount);
+            for (int i = 0; i < chartCount; i++) {
+                charts.add(readBlock(channel, start, length, offsets.getLong()));
+            }
+
+            return charts;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated binary chart file", e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupted binary chart file", e);
+        }
+    }
+
+    private MappedChart readBlock(FileChannel channel, long start, long length, long offset) throws IOException {
+        final ByteBuffer counts = read(channel, start, length, offset, 8);
+        final int pointCount = counts.getInt();
+        final int seriesCount = counts.getInt();
+        if (pointCount < 0 || seriesCount < 0) {
+            throw new IOException("Corrupted chart block at " + offset);
+        }
+
+        final String[] ids = new String[seriesCount];
+        final String[] names = new String[seriesCount];
+        final int[] colors = new int[seriesCount];
+        long position = offset + 8;
+        for (int i = 0; i < seriesCount; i++) {
+            final ByteBuffer entry = read(channel, start, length, position, 6);
+            colors[i] = entry.getInt();
+            final int idLength = entry.getShort() & 0xFFFF;
+            position += 6;
+
+            final ByteBuffer id = read(channel, start, length, position, idLength + 2);
+            ids[i] = readString(id, idLength);
+            final int nameLength = id.getShort() & 0xFFFF;
+            position += idLength + 2;
+
+            names[i] = readString(read(channel, start, length, position, nameLength), nameLength);
+            position += nameLength;
+        }
+
+        position = BinaryChartFormat.align(position);
+
+        final LongBuffer abscissa = column(channel, start, length, position, 8L * pointCount).asLongBuffer();
+        position += 8L * pointCount;
+
+        final FloatBuffer[] ordinates = new FloatBuffer[seriesCount];
+        for (int i = 0; i < seriesCount; i++) {
+            ordinates[i] = column(channel, start, length, position, 4L * pointCount).asFloatBuffer();
+            position += 4L * pointCount;
+        }
+
+        return new MappedChart(ids, names, colors, abscissa, ordinates);
+    }
+
+    /**
+     * Maps a column on its own, so only a single column is bound to the 2 GB limit of a mapping, not the file.
+     * The mapping stays valid after the channel is closed.
+     */
+    private ByteBuffer column(FileChannel channel, long start, long length, long position, long bytes) throws IOException {
+        checkRange(length, position, bytes);
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Column of " + bytes + " bytes at " + position + " is too large to be mapped");
+        }
+
+        return channel.map(FileChannel.MapMode.READ_ONLY, start + position, bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Reads a small part of the file into the heap, e.g. the header or a series entry.
+     */
+    private ByteBuffer read(FileChannel channel, long start, long length, long position, long bytes) throws IOException {
+        checkRange(length, position, bytes);
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Corrupted binary chart file");
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + position + buffer.position()) < 0) {
+                throw new IOException("Truncated binary chart file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void checkRange(long length, long position, long bytes) throws IOException {
+        if (position < 0 || bytes < 0 || position + bytes > length) {
+            throw new IOException("Truncated binary chart file, " + bytes + " bytes at " + position + " of " + length);
+        }
+    }
+
+    private String readString(ByteBuffer buffer, int length) {
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, BinaryChartFormat.CHARSET);
+    }
+}
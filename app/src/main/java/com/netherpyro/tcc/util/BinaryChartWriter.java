@@ -0,0 +1,182 @@
+package com.netherpyro.tcc.util;
+
+import com.netherpyro.tcc.chart.ChartData;
+import com.netherpyro.tcc.chart.GraphLineModel;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * Writes charts in {@link BinaryChartFormat} and converts the json asset schema into it.
+ */
+public class BinaryChartWriter {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Parses json in {@code columns/types/names/colors} schema and stores it as binary file.
+     */
+    public List<ChartData> convert(InputStream json, File target) throws IOException {
+        final List<ChartData> charts = new JsonParser().parse(json);
+        write(charts, target);
+        return charts;
+    }
+
+    /**
+     * Writes into a temporary file first, so a partially written file never replaces the target.
+     */
+    public void write(List<ChartData> charts, File target) throws IOException {
+        final File tmp = new File(target.getPath() + ".tmp");
+        final FileOutputStream out = new FileOutputStream(tmp);
+
+        try {
+            write(charts, out.getChannel());
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+
+        if (!tmp.renameTo(target)) {
+            tmp.delete();
+            throw new IOException("Unable to move " + tmp + " to " + target);
+        }
+    }
+
+    private void write(List<ChartData> charts, FileChannel channel) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        final long[] offsets = new long[charts.size()];
+        long position = BinaryChartFormat.HEADER_SIZE + 8L * charts.size();
+        for (int i = 0; i < charts.size(); i++) {
+            offsets[i] = position;
+            position = BinaryChartFormat.align(position + blockSize(charts.get(i)));
+        }
+
+        buffer.putInt(BinaryChartFormat.MAGIC);
+        buffer.putInt(BinaryChartFormat.VERSION);
+        buffer.putInt(charts.size());
+        buffer.putInt(0);
+        for (long offset : offsets) {
+            ensureRemaining(channel, buffer, 8);
+            buffer.putLong(offset);
+        }
+
+        long written = BinaryChartFormat.HEADER_SIZE + 8L * charts.size();
+        for (ChartData chart : charts) {
+            written += writeBlock(chart, channel, buffer);
+            while (written % BinaryChartFormat.ALIGNMENT != 0) {
+                ensureRemaining(channel, buffer, 1);
+                buffer.put((byte) 0);
+                written++;
+            }
+        }
+
+        flush(channel, buffer);
+    }
+
+    private long blockSize(ChartData chart) {
+        long size = 8 + seriesTableSize(chart);
+        size = BinaryChartFormat.align(size);
+        size += 8L * chart.size();
+        size += 4L * chart.size() * chart.getLines().size();
+        return size;
+    }
+
+    private long seriesTableSize(ChartData chart) {
+        long size = 0;
+        for (GraphLineModel line : chart.getLines()) {
+            size += 4 + 2 + encode(line.getId()).length + 2 + encode(line.getName()).length;
+        }
+        return size;
+    }
+
+    private long writeBlock(ChartData chart, FileChannel channel, ByteBuffer buffer) throws IOException {
+        final List<GraphLineModel> lines = chart.getLines();
+
+        ensureRemaining(channel, buffer, 8);
+        buffer.putInt(chart.size());
+        buffer.putInt(lines.size());
+
+        long written = 8;
+        for (GraphLineModel line : lines) {
+            final byte[] id = encode(line.getId());
+            final byte[] name = encode(line.getName());
+
+            // a label may be larger than the buffer, so it is written in parts
+            ensureRemaining(channel, buffer, 6);
+            buffer.putInt(line.getColor());
+            buffer.putShort((short) id.length);
+            put(channel, buffer, id);
+            ensureRemaining(channel, buffer, 2);
+            buffer.putShort((short) name.length);
+            put(channel, buffer, name);
+            written += 8 + id.length + name.length;
+        }
+
+        while (written % BinaryChartFormat.ALIGNMENT != 0) {
+            ensureRemaining(channel, buffer, 1);
+            buffer.put((byte) 0);
+            written++;
+        }
+
+        for (int i = 0; i < chart.size(); i++) {
+            ensureRemaining(channel, buffer, 8);
+            buffer.putLong(chart.timestampAt(i));
+        }
+        written += 8L * chart.size();
+
+        for (GraphLineModel line : lines) {
+            final int count = Math.min(line.size(), chart.size());
+            for (int i = 0; i < count; i++) {
+                ensureRemaining(channel, buffer, 4);
+                buffer.putFloat(line.valueAt(i));
+            }
+            // keep the columns rectangular even if a series is shorter than the abscissa
+            for (int i = count; i < chart.size(); i++) {
+                ensureRemaining(channel, buffer, 4);
+                buffer.putFloat(0f);
+            }
+            written += 4L * chart.size();
+        }
+
+        return written;
+    }
+
+    private byte[] encode(String value) {
+        final byte[] bytes = (value != null ? value : "").getBytes(BinaryChartFormat.CHARSET);
+        if (bytes.length > BinaryChartFormat.MAX_LABEL_BYTES) {
+            throw new IllegalArgumentException("Series label is too long: " + value);
+        }
+        return bytes;
+    }
+
+    private void put(FileChannel channel, ByteBuffer buffer, byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensureRemaining(channel, buffer, 1);
+            final int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    private void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,99 @@
+package com.netherpyro.tcc.util;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.netherpyro.tcc.BuildConfig;
+import com.netherpyro.tcc.chart.ChartData;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Loads charts of a json asset. The first launch of an app version converts the json into
+ * a binary file in the app files dir, later launches only map that file. Binaries of previous versions are
+ * deleted by the conversion.
+ */
+public class ChartDataLoader {
+
+    private static final String TAG = "ChartDataLoader";
+    private static final String BINARY_EXTENSION = ".tcc";
+
+    public List<ChartData> load(final Context context, final String jsonAssetName) throws IOException {
+        final File binary = binaryFile(context, jsonAssetName);
+
+        if (binary.exists()) {
+            try {
+                return new BinaryChartReader().read(binary);
+            } catch (IOException e) {
+                Log.w(TAG, "Dropping unreadable " + binary, e);
+                binary.delete();
+            }
+        }
+
+        deleteStaleBinaries(context, jsonAssetName);
+
+        final List<ChartData> charts;
+        final InputStream json = new AssetsFileReader().open(context, jsonAssetName);
+        try {
+            charts = new JsonParser().parse(json);
+        } finally {
+            json.close();
+        }
+
+        try {
+            new BinaryChartWriter().write(charts, binary);
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to write " + binary, e);
+        }
+
+        return charts;
+    }
+
+    File binaryFile(final Context context, final String jsonAssetName) {
+        // bound to the version code, so an updated asset is converted again
+        return new File(context.getFilesDir(), jsonAssetName + "." + BuildConfig.VERSION_CODE + BINARY_EXTENSION);
+    }
+
+    /**
+     * Deletes binaries of the asset written by other app versions, including temporary files of an interrupted write.
+     */
+    void deleteStaleBinaries(final Context context, final String jsonAssetName) {
+        final String current = binaryFile(context, jsonAssetName).getName();
+        final String prefix = jsonAssetName + ".";
+
+        final File[] files = context.getFilesDir().listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                if (!name.startsWith(prefix) || name.equals(current)) {
+                    return false;
+                }
+
+                final int extension = name.indexOf(BINARY_EXTENSION, prefix.length());
+                return extension > prefix.length() && isVersionCode(name.substring(prefix.length(), extension));
+            }
+        });
+
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            if (!file.delete()) {
+                Log.w(TAG, "Unable to delete " + file);
+            }
+        }
+    }
+
+    private boolean isVersionCode(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
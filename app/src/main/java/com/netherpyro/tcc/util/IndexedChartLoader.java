@@ -0,0 +1,182 @@
+package com.netherpyro.tcc.util;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+
+import com.netherpyro.tcc.BuildConfig;
+import com.netherpyro.tcc.chart.ChartData;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+import androidx.annotation.WorkerThread;
+
+/**
+ * Parses single charts of a json asset on demand, e.g. when the view of a chart becomes visible.
+ * The byte range of every chart comes from a {@link ChartIndex} that is built on the first launch of
+ * an app version and kept in the app files dir, later launches only read the index.
+ * <p>
+ * Once the json has been converted into the binary file of {@link ChartDataLoader}, e.g. by a
+ * {@link ParallelChartLoader}, charts are copied from its mapping instead. Until then a chart is read by its
+ * byte range straight from the apk, so the asset has to be stored uncompressed, see {@code aaptOptions.noCompress}
+ * in the build script.
+ */
+public class IndexedChartLoader {
+
+    private static final String TAG = "IndexedChartLoader";
+    private static final String INDEX_EXTENSION = ".idx";
+
+    private final Context context;
+    private final String jsonAssetName;
+    private ChartIndex index = null;
+    // mapping of the binary file, null until it has been written
+    private List<MappedChart> binary = null;
+
+    public IndexedChartLoader(Context context, String jsonAssetName) {
+        this.context = context.getApplicationContext();
+        this.jsonAssetName = jsonAssetName;
+    }
+
+    /**
+     * @return names, colors and point counts of all charts, without parsing any values
+     */
+    @WorkerThread
+    public synchronized ChartIndex index() throws IOException {
+        if (index != null) {
+            return index;
+        }
+
+        final File file = indexFile();
+        if (file.exists()) {
+            final InputStream in = new FileInputStream(file);
+            try {
+                index = ChartIndex.read(in);
+                return index;
+            } catch (IOException e) {
+                Log.w(TAG, "Dropping unreadable " + file, e);
+            } finally {
+                in.close();
+            }
+            file.delete();
+        }
+
+        final InputStream json = new AssetsFileReader().open(context, jsonAssetName);
+        try {
+            index = ChartIndex.build(json);
+        } finally {
+            json.close();
+        }
+
+        try {
+            write(index, file);
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to write " + file, e);
+        }
+
+        return index;
+    }
+
+    /**
+     * @return true if the charts are read from the binary file, false if the json still has to be converted
+     */
+    @WorkerThread
+    public boolean isConverted() throws IOException {
+        return binary() != null;
+    }
+
+    /**
+     * Reads only the bytes of the chart, may be called from several threads at once.
+     *
+     * @param chart position of the chart in the root array of the json
+     */
+    @WorkerThread
+    public ChartData load(int chart) throws IOException {
+        final List<MappedChart> binary = binary();
+        if (binary != null) {
+            return binary.get(chart).toChartData();
+        }
+
+        final ChartIndex.Entry entry = index().get(chart);
+        final byte[] chartJson = new byte[entry.getLength()];
+
+        final AssetFileDescriptor descriptor = new AssetsFileReader().openFd(context, jsonAssetName);
+        final FileInputStream in = descriptor.createInputStream();
+        try {
+            // positional reads, the stream of an asset would have to read everything before the chart
+            final FileChannel channel = in.getChannel();
+            final ByteBuffer buffer = ByteBuffer.wrap(chartJson);
+            final long start = descriptor.getStartOffset() + entry.getOffset();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new EOFException("Chart at " + entry.getOffset() + " is beyond the end of " + jsonAssetName);
+                }
+            }
+        } finally {
+            in.close();
+        }
+
+        return new JsonParser().parseChart(new ByteArrayInputStream(chartJson));
+    }
+
+    /**
+     * Maps the binary file once it exists, a file of other charts than the index has is not used.
+     */
+    private synchronized List<MappedChart> binary() throws IOException {
+        if (binary != null) {
+            return binary;
+        }
+
+        final File file = new ChartDataLoader().binaryFile(context, jsonAssetName);
+        if (!file.exists()) {
+            return null;
+        }
+
+        try {
+            final List<MappedChart> mapped = new BinaryChartReader().map(file);
+            if (mapped.size() == index().size()) {
+                binary = mapped;
+            } else {
+                Log.w(TAG, "Ignoring " + file + " of " + mapped.size() + " charts, the index has " + index().size());
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Dropping unreadable " + file, e);
+            file.delete();
+        }
+
+        return binary;
+    }
+
+    private File indexFile() {
+        // bound to the version code, so an updated asset is indexed again
+        return new File(context.getFilesDir(), jsonAssetName + "." + BuildConfig.VERSION_CODE + INDEX_EXTENSION);
+    }
+
+    /**
+     * Writes into a temporary file first, so a partially written index never replaces the target.
+     */
+    private void write(ChartIndex index, File target) throws IOException {
+        final File tmp = new File(target.getPath() + ".tmp");
+        final FileOutputStream out = new FileOutputStream(tmp);
+
+        try {
+            index.write(out);
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+
+        if (!tmp.renameTo(target)) {
+            tmp.delete();
+            throw new IOException("Unable to move " + tmp + " to " + target);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.netherpyro.tcc.util;
+
+import com.netherpyro.tcc.chart.ChartData;
+import com.netherpyro.tcc.chart.ChartDataSource;
+import com.netherpyro.tcc.chart.GraphLineModel;
+import com.netherpyro.tcc.chart.TimeAxis;
+
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Chart block of a memory mapped binary file. Columns are views over the mapping and stay off the Java heap,
+ * so it can be drawn as a {@link com.netherpyro.tcc.chart.PagedChart} without copying.
+ */
+public final class MappedChart implements ChartDataSource {
+
+    final String[] ids;
+    final String[] names;
+    final int[] colors;
+
+    private final LongBuffer abscissa;
+    private final FloatBuffer[] ordinates;
+
+    MappedChart(String[] ids, String[] names, int[] colors, LongBuffer abscissa, FloatBuffer[] ordinates) {
+        this.ids = ids;
+        this.names = names;
+        this.colors = colors;
+        this.abscissa = abscissa;
+        this.ordinates = ordinates;
+    }
+
+    public int size() {
+        return abscissa.limit();
+    }
+
+    @Override
+    public int pointCount() {
+        return size();
+    }
+
+    @Override
+    public int seriesCount() {
+        return ordinates.length;
+    }
+
+    @Override
+    public String seriesId(int series) {
+        return ids[series];
+    }
+
+    @Override
+    public String seriesName(int series) {
+        return names[series];
+    }
+
+    @Override
+    public int seriesColor(int series) {
+        return colors[series];
+    }
+
+    @Override
+    public void readTimestamps(int from, int to, @NonNull long[] dst) {
+        final LongBuffer view = abscissa();
+        view.position(from);
+        view.get(dst, 0, to - from);
+    }
+
+    @Override
+    public void readRange(int series, int from, int to, @NonNull float[] dst) {
+        final FloatBuffer view = ordinate(series);
+        view.position(from);
+        view.get(dst, 0, to - from);
+    }
+
+    /**
+     * @return independent view, safe to be read by several threads each with its own view
+     */
+    public LongBuffer abscissa() {
+        return abscissa.duplicate();
+    }
+
+    /**
+     * @return independent view, safe to be read by several threads each with its own view
+     */
+    public FloatBuffer ordinate(int series) {
+        return ordinates[series].duplicate();
+    }
+
+    /**
+     * Copies the columns into the heap with one bulk copy per series, the time axis is encoded point by point.
+     * The lines and their range indexes work on heap arrays, so only a {@link com.netherpyro.tcc.chart.PagedChart}
+     * over this chart draws it without the copy.
+     */
+    public ChartData toChartData() {
+        // evenly spaced timestamps are not copied at all, only their start and stride
+        final LongBuffer abscissa = abscissa();
+        final TimeAxis.Builder x = new TimeAxis.Builder();
+        while (abscissa.hasRemaining()) {
+            x.add(abscissa.get());
+        }
+
+        final List<GraphLineModel> lines = new ArrayList<>(ordinates.length);
+        for (int i = 0; i < ordinates.length; i++) {
+            final float[] values = new float[size()];
+            ordinate(i).get(values);
+            lines.add(new GraphLineModel(ids[i], names[i], values, colors[i]));
+        }
+
+        return new ChartData(x.build(), lines);
+    }
+}
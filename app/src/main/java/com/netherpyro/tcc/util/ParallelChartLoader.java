@@ -0,0 +1,196 @@
+package com.netherpyro.tcc.util;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.netherpyro.tcc.chart.ChartData;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import androidx.annotation.MainThread;
+
+/**
+ * Loads charts like {@link ChartDataLoader}, but every chart is parsed or copied by its own task on the executor
+ * and delivered on the main thread as soon as it is ready, in whatever order they complete.
+ * The json is cut into charts while it is read, so the first chart does not wait for the rest of the file.
+ * <p>
+ * One of the tasks coordinates the others and waits for them, the executor must run at least two tasks at once.
+ */
+public class ParallelChartLoader {
+
+    private static final String TAG = "ParallelChartLoader";
+
+    public interface Listener {
+        void onChartLoaded(int index, ChartData chart);
+
+        void onLoadFailed(Exception e);
+    }
+
+    private final ExecutorService executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // tasks in flight, a task removes itself once it is done
+    private final Set<Future<?>> tasks = Collections.newSetFromMap(new ConcurrentHashMap<Future<?>, Boolean>());
+    private volatile boolean cancelled = false;
+
+    public ParallelChartLoader(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    @MainThread
+    public void load(final Context context, final String jsonAssetName, final Listener listener) {
+        final Context appContext = context.getApplicationContext();
+
+        submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                try {
+                    coordinate(appContext, jsonAssetName, listener);
+                } catch (IOException | RuntimeException e) {
+                    deliverFailure(e, listener);
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Stops running tasks and drops charts that are not delivered yet, nothing is delivered after this call.
+     */
+    @MainThread
+    public void cancel() {
+        cancelled = true;
+        for (Future<?> task : tasks) {
+            task.cancel(true);
+        }
+    }
+
+    private void coordinate(Context context, String jsonAssetName, final Listener listener) throws IOException {
+        final ChartDataLoader chartDataLoader = new ChartDataLoader();
+        final File binary = chartDataLoader.binaryFile(context, jsonAssetName);
+
+        if (binary.exists()) {
+            try {
+                final List<MappedChart> mapped = new BinaryChartReader().map(binary);
+                for (int i = 0; i < mapped.size(); i++) {
+                    final int index = i;
+                    final MappedChart chart = mapped.get(i);
+                    submit(new Callable<ChartData>() {
+                        @Override
+                        public ChartData call() {
+                            deliver(index, chart.toChartData(), listener);
+                            return null;
+                        }
+                    });
+                }
+                return;
+            } catch (IOException e) {
+                Log.w(TAG, "Dropping unreadable " + binary, e);
+                binary.delete();
+            }
+        }
+
+        chartDataLoader.deleteStaleBinaries(context, jsonAssetName);
+
+        final List<Future<ChartData>> parsed = new ArrayList<>();
+        final InputStream json = new AssetsFileReader().open(context, jsonAssetName);
+        try {
+            new JsonChartSplitter().split(json, new JsonChartSplitter.Consumer() {
+                @Override
+                public void onChart(final int index, long offset, final byte[] chartJson) {
+                    parsed.add(submit(new Callable<ChartData>() {
+                        @Override
+                        public ChartData call() throws IOException {
+                            final ChartData chart = new JsonParser().parseChart(new ByteArrayInputStream(chartJson));
+                            deliver(index, chart, listener);
+                            return chart;
+                        }
+                    }));
+                }
+            });
+        } finally {
+            json.close();
+        }
+
+        // the binary file is written once every chart is parsed
+        final List<ChartData> charts = new ArrayList<>(parsed.size());
+        try {
+            for (Future<ChartData> chart : parsed) {
+                charts.add(chart.get());
+            }
+        } catch (InterruptedException | CancellationException e) {
+            return;
+        } catch (ExecutionException e) {
+            deliverFailure(e, listener);
+            return;
+        }
+
+        try {
+            new BinaryChartWriter().write(charts, binary);
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to write " + binary, e);
+        }
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+
+        final FutureTask<T> future = new FutureTask<T>(task) {
+            @Override
+            protected void done() {
+                tasks.remove(this);
+            }
+        };
+
+        // added before it runs, so a task that is already done is never added
+        tasks.add(future);
+        try {
+            executor.execute(future);
+            return future;
+        } catch (RejectedExecutionException e) {
+            tasks.remove(future);
+            // the executor was shut down together with the cancellation
+            throw new CancellationException();
+        }
+    }
+
+    private void deliver(final int index, final ChartData chart, final Listener listener) {
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (!cancelled) {
+                    listener.onChartLoaded(index, chart);
+                }
+            }
+        });
+    }
+
+    private void deliverFailure(final Exception e, final Listener listener) {
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (!cancelled) {
+                    listener.onLoadFailed(e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.netherpyro.tcc.util;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.netherpyro.tcc.chart.ChartData;
+import com.netherpyro.tcc.chart.ChartRenderer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.Px;
+
+/**
+ * Renders charts into bitmaps with a {@link ChartRenderer}, every chart by its own task on the executor.
+ * Thumbnails are delivered on the main thread as soon as they are ready, in whatever order they complete.
+ */
+public class ThumbnailRenderer {
+
+    public interface Listener {
+        void onThumbnailRendered(int index, Bitmap thumbnail);
+
+        void onRenderFailed(int index, Exception e);
+    }
+
+    private final ExecutorService executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // tasks in flight, a task removes itself once it is done
+    private final Set<Future<?>> tasks = Collections.newSetFromMap(new ConcurrentHashMap<Future<?>, Boolean>());
+    private volatile boolean cancelled = false;
+
+    // a renderer keeps the geometry of its last chart, so every worker thread has its own one
+    private final ThreadLocal<ChartRenderer> renderers;
+
+    public ThumbnailRenderer(ExecutorService executor, @Px final int width, @Px final int height, final boolean labelsVisible) {
+        this.executor = executor;
+        this.renderers = new ThreadLocal<ChartRenderer>() {
+            @Override
+            protected ChartRenderer initialValue() {
+                final ChartRenderer renderer = new ChartRenderer(width, height);
+                renderer.setLabelsVisible(labelsVisible);
+                return renderer;
+            }
+        };
+    }
+
+    /**
+     * Renders all points of every chart, the index of a thumbnail is the one of its chart in the list.
+     */
+    @MainThread
+    public void render(List<ChartData> charts, Listener listener) {
+        for (int i = 0; i < charts.size(); i++) {
+            render(i, charts.get(i), 0f, 1f, listener);
+        }
+    }
+
+    /**
+     * @param fromFraction left edge of the window, 0 for the first point
+     * @param toFraction   right edge of the window, 1 for the last point
+     */
+    @MainThread
+    public void render(final int index, final ChartData chart, final float fromFraction, final float toFraction,
+                       final Listener listener) {
+        if (cancelled) {
+            return;
+        }
+
+        final FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    deliver(index, renderers.get().render(chart, fromFraction, toFraction), listener);
+                } catch (RuntimeException e) {
+                    deliverFailure(index, e, listener);
+                }
+            }
+        }, null) {
+            @Override
+            protected void done() {
+                tasks.remove(this);
+            }
+        };
+
+        // added before it runs, so a task that is already done is never added
+        tasks.add(task);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            tasks.remove(task);
+            // the executor was shut down together with the cancellation
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Stops running tasks and drops thumbnails that are not delivered yet, nothing is delivered after this call.
+     */
+    @MainThread
+    public void cancel() {
+        cancelled = true;
+        for (Future<?> task : tasks) {
+            task.cancel(true);
+        }
+    }
+
+    private void deliver(final int index, final Bitmap thumbnail, final Listener listener) {
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (cancelled) {
+                    thumbnail.recycle();
+                } else {
+                    listener.onThumbnailRendered(index, thumbnail);
+                }
+            }
+        });
+    }
+
+    private void deliverFailure(final int index, final Exception e, final Listener listener) {
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (!cancelled) {
+                    listener.onRenderFailed(index, e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package com.netherpyro.tcc.chart;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Labels of a frame: dates of the abscissa for a window that pans by a point per frame, and the ordinate labels
+ * of a range that changes on every frame like during a transition.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LabelBenchmark {
+
+    private static final int WIDTH = 1080;
+    private static final int WINDOW_POINTS = 100;
+    private static final int RULER_FLOORS = 5;
+
+    @Param({"1000x1", "100000x1", "10000000x1"})
+    public String shape;
+
+    private final LabelStyle style = new SyntheticCharts.FixedLabelStyle();
+    private TimeAxis timestamps;
+    private AbscissaLabelLayout abscissaLabels;
+    private OrdinateLabelCache ordinateLabels;
+    private final char[] ordinateChars = new char[OrdinateLabelCache.MAX_LABEL_CHARS];
+    private int windowStart = 0;
+    private int ordinateBase = 0;
+
+    @Setup
+    public void setUp() {
+        timestamps = SyntheticCharts.chart(shape).columnData;
+        abscissaLabels = newAbscissaLabels();
+        ordinateLabels = new OrdinateLabelCache(64, style);
+    }
+
+    /**
+     * Labels of a window on a new table, every label is formatted and measured.
+     */
+    @Benchmark
+    public float formatAbscissa() {
+        return layout(newAbscissaLabels(), 0);
+    }
+
+    /**
+     * Labels of a window panned by a point on a warm table, only labels that come in are formatted.
+     */
+    @Benchmark
+    public float panAbscissa() {
+        windowStart = (windowStart + 1) % (timestamps.size() - WINDOW_POINTS + 1);
+        return layout(abscissaLabels, windowStart);
+    }
+
+    @Benchmark
+    public int ordinate() {
+        ordinateBase += 7;
+
+        int length = 0;
+        for (int i = 0; i <= RULER_FLOORS; i++) {
+            length += ordinateLabels.copyLabel(ordinateLabels.slotOf(ordinateBase + i * 250), ordinateChars);
+        }
+
+        return length;
+    }
+
+    private AbscissaLabelLayout newAbscissaLabels() {
+        return new AbscissaLabelLayout(new DateLabelTable(timestamps, style), style.measureText("WWW 99"), 24f);
+    }
+
+    private float layout(AbscissaLabelLayout labels, int fromIndex) {
+        final int toIndex = Math.min(fromIndex + WINDOW_POINTS - 1, timestamps.size() - 1);
+        labels.layout(fromIndex, toIndex, timestamps.size() - 1, 0f, (float) WIDTH / WINDOW_POINTS);
+
+        float x = 0f;
+        for (int i = 0; i < labels.count(); i++) {
+            x += labels.x(i) + labels.label(i).length();
+        }
+
+        return x;
+    }
+}
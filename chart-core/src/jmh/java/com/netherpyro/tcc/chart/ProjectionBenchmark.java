@@ -0,0 +1,100 @@
+package com.netherpyro.tcc.chart;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projection of a window onto a phone sized drawport: x-coordinates of the points
+ * and segments of all series, as done by the graph on a settled frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProjectionBenchmark {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 900;
+    private static final int PADDING = 48;
+
+    @Param({"1000x1", "1000x100", "100000x10", "1000000x10", "10000000x1"})
+    public String shape;
+
+    /**
+     * Part of the data in the window, 1 for the whole data.
+     */
+    @Param({"1", "0.1"})
+    public float window;
+
+    private List<GraphLineModel> lines;
+    private SegmentRing[] rings;
+    private CoordinateResolver resolver;
+    private ViewportTransform viewport;
+    // x-coordinates of the window points
+    private float[] xCoordinates;
+    private int fromIndex;
+    private int toIndex;
+    private float minValue;
+    private float maxValue;
+    private boolean odd = false;
+
+    @Setup
+    public void setUp() {
+        lines = SyntheticCharts.chart(shape).getLines();
+        final int points = SyntheticCharts.points(shape);
+
+        rings = new SegmentRing[lines.size()];
+        minValue = Float.MAX_VALUE;
+        maxValue = -Float.MAX_VALUE;
+        for (int i = 0; i < rings.length; i++) {
+            rings[i] = new SegmentRing();
+            // built when the data is bound, not per frame
+            final GraphLineModel line = lines.get(i);
+            line.lod();
+            minValue = Math.min(minValue, line.extremums().min(0, points - 1));
+            maxValue = Math.max(maxValue, line.extremums().max(0, points - 1));
+        }
+
+        resolver = new CoordinateResolver(HEIGHT, 0, PADDING);
+        viewport = new ViewportTransform(0, WIDTH);
+        viewport.setPoints(0, points);
+        viewport.setWindowFraction(1f - window, 1f);
+        fromIndex = viewport.firstIndex();
+        toIndex = viewport.lastIndex();
+
+        xCoordinates = new float[toIndex - fromIndex + 1];
+    }
+
+    @Benchmark
+    public float[] projectX() {
+        viewport.project(fromIndex, xCoordinates.length, xCoordinates, 0);
+        return xCoordinates;
+    }
+
+    /**
+     * Every call moves the ordinate window, so all segments are projected again instead of being transformed.
+     */
+    @Benchmark
+    public void projectSegments() {
+        odd = !odd;
+        resolver.setOrdinateWindow(minValue, odd ? maxValue : maxValue * 1.01f);
+
+        for (int i = 0; i < rings.length; i++) {
+            rings[i].project(resolver, viewport, lines.get(i), WIDTH, fromIndex, toIndex, false);
+        }
+    }
+}
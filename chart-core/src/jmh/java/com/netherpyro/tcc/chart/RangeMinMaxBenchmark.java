@@ -0,0 +1,80 @@
+package com.netherpyro.tcc.chart;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Min and max of all series over random windows, as computed on every window change, and the cost of the index.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RangeMinMaxBenchmark {
+
+    private static final int WINDOWS = 1024;
+
+    @Param({"1000x1", "1000x100", "100000x10", "1000000x10", "10000000x1"})
+    public String shape;
+
+    private float[] firstSeries;
+    private RangeExtremums[] extremums;
+    // from and to of every window
+    private final int[] windows = new int[WINDOWS * 2];
+    private int nextWindow = 0;
+
+    @Setup
+    public void setUp() {
+        final List<GraphLineModel> lines = SyntheticCharts.chart(shape).getLines();
+        firstSeries = lines.get(0).values;
+        extremums = new RangeExtremums[lines.size()];
+        for (int i = 0; i < extremums.length; i++) {
+            extremums[i] = lines.get(i).extremums();
+        }
+
+        final int points = SyntheticCharts.points(shape);
+        final Random random = new Random(42);
+        for (int i = 0; i < WINDOWS; i++) {
+            final int length = 1 + random.nextInt(points);
+            final int from = random.nextInt(points - length + 1);
+            windows[i * 2] = from;
+            windows[i * 2 + 1] = from + length - 1;
+        }
+    }
+
+    @Benchmark
+    public float query() {
+        final int from = windows[nextWindow];
+        final int to = windows[nextWindow + 1];
+        nextWindow = (nextWindow + 2) % windows.length;
+
+        float min = Float.MAX_VALUE;
+        float max = -Float.MAX_VALUE;
+        for (RangeExtremums line : extremums) {
+            min = Math.min(min, line.min(from, to));
+            max = Math.max(max, line.max(from, to));
+        }
+
+        return max - min;
+    }
+
+    @Benchmark
+    public RangeExtremums build() {
+        return new RangeMinMaxIndex(firstSeries);
+    }
+}
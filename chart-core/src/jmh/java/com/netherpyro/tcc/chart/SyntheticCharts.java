@@ -0,0 +1,121 @@
+package com.netherpyro.tcc.chart;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Datasets of the benchmarks, shaped {@code <points>x<series>}: daily timestamps and a random walk per series.
+ * The same shape always gives the same data.
+ */
+public final class SyntheticCharts {
+
+    private static final long START_TIMESTAMP = 1542412800000L;
+    private static final long DAY = 86400000L;
+
+    private SyntheticCharts() {
+    }
+
+    public static int points(String shape) {
+        return Integer.parseInt(shape.substring(0, shape.indexOf('x')));
+    }
+
+    public static int series(String shape) {
+        return Integer.parseInt(shape.substring(shape.indexOf('x') + 1));
+    }
+
+    public static ChartData chart(String shape) {
+        final int points = points(shape);
+        final int series = series(shape);
+
+        final long[] timestamps = new long[points];
+        for (int i = 0; i < points; i++) {
+            timestamps[i] = START_TIMESTAMP + i * DAY;
+        }
+
+        final List<GraphLineModel> lines = new ArrayList<>(series);
+        for (int s = 0; s < series; s++) {
+            lines.add(new GraphLineModel("y" + s, "Series " + s, randomWalk(points, s), 0xFF000000 | (s * 0x3D5F1B)));
+        }
+
+        return new ChartData(timestamps, lines);
+    }
+
+    /**
+     * @return chart object in the {@code columns/types/names/colors} schema of the json asset
+     */
+    public static byte[] json(String shape) {
+        final ChartData chart = chart(shape);
+        final List<GraphLineModel> lines = chart.getLines();
+        final StringBuilder json = new StringBuilder();
+
+        json.append("{\"columns\":[[\"x\"");
+        for (int i = 0; i < chart.size(); i++) {
+            json.append(',').append(chart.timestampAt(i));
+        }
+        json.append(']');
+        for (GraphLineModel line : lines) {
+            json.append(",[\"").append(line.getId()).append('"');
+            for (int i = 0; i < line.size(); i++) {
+                json.append(',').append((int) line.valueAt(i));
+            }
+            json.append(']');
+        }
+
+        json.append("],\"types\":{\"x\":\"x\"");
+        for (GraphLineModel line : lines) {
+            json.append(",\"").append(line.getId()).append("\":\"line\"");
+        }
+
+        json.append("},\"names\":{");
+        for (int s = 0; s < lines.size(); s++) {
+            json.append(s == 0 ? "" : ",").append('"').append(lines.get(s).getId()).append("\":\"")
+                    .append(lines.get(s).getName()).append('"');
+        }
+
+        json.append("},\"colors\":{");
+        for (int s = 0; s < lines.size(); s++) {
+            json.append(s == 0 ? "" : ",").append('"').append(lines.get(s).getId()).append("\":\"")
+                    .append(String.format(Locale.US, "#%06X", lines.get(s).getColor() & 0xFFFFFF)).append('"');
+        }
+        json.append("}}");
+
+        return json.toString().getBytes(Charset.forName("UTF-8"));
+    }
+
+    private static float[] randomWalk(int points, long seed) {
+        final Random random = new Random(seed);
+        final float[] values = new float[points];
+
+        float value = 1000f;
+        for (int i = 0; i < points; i++) {
+            value = Math.max(0f, value + (float) random.nextGaussian() * 25f);
+            values[i] = Math.round(value);
+        }
+
+        return values;
+    }
+
+    /**
+     * Fixed width glyphs and a fixed pattern, so labels cost the same on every machine.
+     */
+    static final class FixedLabelStyle implements LabelStyle {
+
+        @Override
+        public float measureText(String text) {
+            return text.length() * 18f;
+        }
+
+        @Override
+        public float measureText(char[] text, int start, int count) {
+            return count * 18f;
+        }
+
+        @Override
+        public String datePattern(Locale locale) {
+            return "MMM d";
+        }
+    }
+}
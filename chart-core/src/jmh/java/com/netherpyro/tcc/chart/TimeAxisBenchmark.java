@@ -0,0 +1,84 @@
+package com.netherpyro.tcc.chart;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random access and timestamp lookups on daily timestamps, evenly spaced or with a jitter of up to a minute,
+ * against a plain array of the same timestamps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TimeAxisBenchmark {
+
+    private static final long START_TIMESTAMP = 1542412800000L;
+    private static final long DAY = 86400000L;
+    private static final long MINUTE = 60000L;
+    private static final int QUERIES = 1024;
+
+    @Param({"100000", "10000000"})
+    public int points;
+
+    @Param({"true", "false"})
+    public boolean regular;
+
+    private long[] timestamps;
+    private TimeAxis axis;
+    private final int[] indexes = new int[QUERIES];
+    private final long[] queries = new long[QUERIES];
+    private int nextQuery = 0;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        timestamps = new long[points];
+        for (int i = 0; i < points; i++) {
+            timestamps[i] = START_TIMESTAMP + i * DAY + (regular ? 0 : random.nextInt((int) MINUTE));
+        }
+        axis = TimeAxis.of(timestamps);
+
+        for (int i = 0; i < QUERIES; i++) {
+            indexes[i] = random.nextInt(points);
+            queries[i] = timestamps[indexes[i]] + random.nextInt((int) DAY);
+        }
+    }
+
+    @Benchmark
+    public long get() {
+        nextQuery = (nextQuery + 1) % QUERIES;
+        return axis.get(indexes[nextQuery]);
+    }
+
+    @Benchmark
+    public int floorIndex() {
+        nextQuery = (nextQuery + 1) % QUERIES;
+        return axis.floorIndex(queries[nextQuery]);
+    }
+
+    @Benchmark
+    public int arrayFloorIndex() {
+        nextQuery = (nextQuery + 1) % QUERIES;
+        return TimeAxis.wrap(timestamps).floorIndex(queries[nextQuery]);
+    }
+
+    @Benchmark
+    public TimeAxis encode() {
+        return TimeAxis.of(timestamps);
+    }
+}
@@ -0,0 +1,63 @@
+package com.netherpyro.tcc.util;
+
+import com.netherpyro.tcc.chart.ChartData;
+import com.netherpyro.tcc.chart.SyntheticCharts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming parse of a chart in the json asset schema, the json size of a shape is printed by the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParseBenchmark {
+
+    @Param({"1000x1", "1000x100", "100000x10", "1000000x1"})
+    public String shape;
+
+    private byte[] json;
+    // the chart as the only element of a root array, like a file that is indexed
+    private byte[] file;
+
+    @Setup
+    public void setUp() {
+        json = SyntheticCharts.json(shape);
+        System.out.println(shape + ": " + json.length + " bytes of json");
+
+        file = new byte[json.length + 2];
+        file[0] = '[';
+        System.arraycopy(json, 0, file, 1, json.length);
+        file[file.length - 1] = ']';
+    }
+
+    @Benchmark
+    public ChartData parseChart() throws IOException {
+        return new JsonParser().parseChart(new ByteArrayInputStream(json));
+    }
+
+    /**
+     * Byte range, series and point count of the chart, values are skipped instead of parsed.
+     */
+    @Benchmark
+    public ChartIndex indexChart() throws IOException {
+        return ChartIndex.build(new ByteArrayInputStream(file));
+    }
+}
@@ -0,0 +1,88 @@
+package com.netherpyro.tcc.chart;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Places date labels on every point whose index is a multiple of a power-of-two stride.
+ * The stride only depends on the zoom level, so while panning the labels stay anchored to their points
+ * and only the visible index range moves.
+ */
+final class AbscissaLabelLayout {
+
+    private final DateLabelTable labels;
+    // index the labels are anchored at of the first point of the table
+    private final int origin;
+    // width reserved for a label together with the gap to the next one
+    private final float labelSpan;
+
+    private int stride;
+    private int firstIndex;
+    private int count;
+    private float firstPointX;
+    private float labelStepX;
+
+    AbscissaLabelLayout(@NonNull DateLabelTable labels, float labelMaxWidth, float labelSpacing) {
+        this(labels, 0, labelMaxWidth, labelSpacing);
+    }
+
+    /**
+     * @param origin position of the first point of the table among all points, e.g. of a loaded window of
+     *               a paged chart, labels are anchored by that position so a reloaded window keeps them on their points
+     */
+    AbscissaLabelLayout(@NonNull DateLabelTable labels, int origin, float labelMaxWidth, float labelSpacing) {
+        this.labels = labels;
+        this.origin = origin;
+        this.labelSpan = labelMaxWidth + labelSpacing;
+    }
+
+    /**
+     * Indexes are the ones of the table, only points of the table are labeled.
+     *
+     * @param lastDataIndex last index that has a point
+     * @param fromX         x-coordinate of the point at fromIndex
+     * @param xStep         distance between neighbour points
+     */
+    void layout(int fromIndex, int toIndex, int lastDataIndex, float fromX, float xStep) {
+        stride = strideFor(xStep, lastDataIndex + 1);
+
+        // one label beyond each edge, it is partially visible
+        int firstLabeled = (origin + fromIndex) / stride * stride;
+        if (firstLabeled < origin) {
+            firstLabeled += stride;
+        }
+        final int lastLabeled = Math.min((origin + toIndex) / stride * stride + stride,
+                origin + Math.min(lastDataIndex, labels.size() - 1));
+
+        firstIndex = firstLabeled - origin;
+        count = lastLabeled < firstLabeled ? 0 : (lastLabeled - firstLabeled) / stride + 1;
+
+        firstPointX = fromX + (firstIndex - fromIndex) * xStep;
+        labelStepX = stride * xStep;
+    }
+
+    int count() {
+        return count;
+    }
+
+    String label(int i) {
+        return labels.label(firstIndex + i * stride);
+    }
+
+    /**
+     * @return left x-coordinate of the label, labels are centered on their points
+     */
+    float x(int i) {
+        return firstPointX + i * labelStepX - labels.width(firstIndex + i * stride) / 2f;
+    }
+
+    private int strideFor(float xStep, int pointsCount) {
+        if (xStep <= 0f) {
+            return Integer.highestOneBit(Math.max(pointsCount, 1));
+        }
+
+        final int minStride = (int) Math.ceil(labelSpan / xStep);
+        final int stride = Integer.highestOneBit(Math.max(minStride, 1));
+
+        return stride < minStride ? stride << 1 : stride;
+    }
+}
@@ -0,0 +1,49 @@
+package com.netherpyro.tcc.chart;
+
+import java.util.List;
+
+/**
+ * @author mmikhailov on 16/03/2019.
+ */
+public final class ChartData {
+
+    final TimeAxis columnData;
+    final List<GraphLineModel> rowsData;
+
+    public ChartData(List<Long> columnData, List<GraphLineModel> rowsData) {
+        final TimeAxis.Builder builder = new TimeAxis.Builder();
+        for (Long value : columnData) {
+            builder.add(value);
+        }
+        this.columnData = builder.build();
+        this.rowsData = rowsData;
+    }
+
+    /**
+     * @param columnData time axis, encoded by {@link TimeAxis#of} and not kept
+     */
+    public ChartData(long[] columnData, List<GraphLineModel> rowsData) {
+        this(TimeAxis.of(columnData), rowsData);
+    }
+
+    public ChartData(TimeAxis columnData, List<GraphLineModel> rowsData) {
+        this.columnData = columnData;
+        this.rowsData = rowsData;
+    }
+
+    public List<GraphLineModel> getLines() {
+        return rowsData;
+    }
+
+    public int size() {
+        return columnData.size();
+    }
+
+    public long timestampAt(int index) {
+        return columnData.get(index);
+    }
+
+    public TimeAxis getTimeAxis() {
+        return columnData;
+    }
+}
@@ -0,0 +1,28 @@
+package com.netherpyro.tcc.chart;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+
+/**
+ * Chart data that is read on demand, for data sets that do not fit in memory.
+ * Ranges are given by point indices, {@code from} inclusive and {@code to} exclusive,
+ * and written to the destination starting at index 0.
+ * Reads may come from any thread but not concurrently.
+ */
+public interface ChartDataSource {
+
+    int pointCount();
+
+    int seriesCount();
+
+    String seriesId(int series);
+
+    String seriesName(int series);
+
+    @ColorInt
+    int seriesColor(int series);
+
+    void readTimestamps(int from, int to, @NonNull long[] dst);
+
+    void readRange(int series, int from, int to, @NonNull float[] dst);
+}
@@ -0,0 +1,65 @@
+package com.netherpyro.tcc.chart;
+
+/**
+ * @author mmikhailov on 17/03/2019.
+ */
+final class CoordinateResolver {
+
+    private ChartWindow window = new ChartWindow();
+    private float height;
+    private float drawportTop;
+    private float topBottomDrawPortPadding;
+
+    /**
+     * Ordinate part of the projection, x-coordinates are mapped by a {@link ViewportTransform}.
+     */
+    CoordinateResolver(float chartHeight, float drawportTop, float topBottomDrawPortPadding) {
+        this.height = chartHeight;
+        this.drawportTop = drawportTop;
+        this.topBottomDrawPortPadding = topBottomDrawPortPadding;
+    }
+
+    void setOrdinateWindow(float fromValue, float toValue) {
+        window.bottom = fromValue;
+        window.top = toValue;
+    }
+
+    float yOfOrdinateValue(float value) {
+        final float percent = (value - window.bottom) / window.height();
+        return drawportTop + height - topBottomDrawPortPadding + percent * (2 * topBottomDrawPortPadding - height);
+    }
+
+    /**
+     * @return y-coordinate change per ordinate value unit
+     */
+    float ordinateScale() {
+        return (2 * topBottomDrawPortPadding - height) / window.height();
+    }
+
+    /**
+     * @return y-coordinate of the min ordinate value
+     */
+    float minOrdinateY() {
+        return drawportTop + height - topBottomDrawPortPadding;
+    }
+
+    float maxOrdinateValue() {
+        return window.top;
+    }
+
+    float minOrdinateValue() {
+        return window.bottom;
+    }
+
+    final class ChartWindow {
+        float top = 0f;
+        float bottom = 0f;
+
+        ChartWindow() {
+        }
+
+        float height() {
+            return top - bottom;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.netherpyro.tcc.chart;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Date labels of the abscissa points, indexed like the points.
+ * Every label is formatted and measured at most once, on the first request.
+ * Labels are kept in pages allocated on the first request of one of their points, so a long axis
+ * costs about as much as the points that get labeled.
+ * The table is reset when the default locale changes, a label of a mutable axis is formatted again
+ * when the timestamp at its index has been replaced.
+ */
+final class DateLabelTable {
+
+    private static final int PAGE_SIZE_SHIFT = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_SIZE_SHIFT;
+
+    private final TimeAxis timestamps;
+    private final LabelStyle style;
+    private final Date date = new Date();
+    private final int size;
+    private final String[][] labels;
+    private final float[][] widths;
+    // null for an immutable axis, its labels never get stale
+    private final long[][] labeledTimestamps;
+
+    private Locale locale = null;
+    private SimpleDateFormat format = null;
+
+    DateLabelTable(@NonNull TimeAxis timestamps, @NonNull LabelStyle style) {
+        this.timestamps = timestamps;
+        this.style = style;
+        this.size = timestamps.size();
+
+        final int pages = (size + PAGE_SIZE - 1) >> PAGE_SIZE_SHIFT;
+        this.labels = new String[pages][];
+        this.widths = new float[pages][];
+        this.labeledTimestamps = timestamps.isImmutable() ? null : new long[pages][];
+    }
+
+    int size() {
+        return size;
+    }
+
+    String label(int index) {
+        ensureLocale();
+
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size + " labels");
+        }
+
+        final int page = index >> PAGE_SIZE_SHIFT;
+        final int slot = index & (PAGE_SIZE - 1);
+        if (labels[page] == null) {
+            labels[page] = new String[PAGE_SIZE];
+            widths[page] = new float[PAGE_SIZE];
+            if (labeledTimestamps != null && labeledTimestamps[page] == null) {
+                labeledTimestamps[page] = new long[PAGE_SIZE];
+            }
+        }
+
+        final String[] pageLabels = labels[page];
+        if (pageLabels[slot] != null && labeledTimestamps == null) {
+            return pageLabels[slot];
+        }
+
+        final long timestamp = timestamps.get(index);
+        if (pageLabels[slot] == null || labeledTimestamps[page][slot] != timestamp) {
+            date.setTime(timestamp);
+            pageLabels[slot] = format.format(date);
+            widths[page][slot] = style.measureText(pageLabels[slot]);
+            if (labeledTimestamps != null) {
+                labeledTimestamps[page][slot] = timestamp;
+            }
+        }
+
+        return pageLabels[slot];
+    }
+
+    float width(int index) {
+        label(index);
+        return widths[index >> PAGE_SIZE_SHIFT][index & (PAGE_SIZE - 1)];
+    }
+
+    private void ensureLocale() {
+        final Locale current = Locale.getDefault();
+        if (current.equals(locale)) {
+            return;
+        }
+
+        locale = current;
+        format = new SimpleDateFormat(style.datePattern(current), current);
+
+        // pages are allocated again on the next request
+        Arrays.fill(labels, null);
+    }
+}
@@ -0,0 +1,115 @@
+package com.netherpyro.tcc.chart;
+
+import java.util.List;
+
+import androidx.annotation.ColorInt;
+
+/**
+ * @author mmikhailov on 16/03/2019.
+ */
+public final class GraphLineModel {
+
+    final String id;
+    final String name;
+
+    final float[] values;
+
+    @ColorInt
+    final int color;
+
+    // built by the first thread that needs them, e.g. a geometry or renderer thread
+    private volatile RangeExtremums extremums = null;
+    private volatile LodPyramid lod = null;
+
+    public GraphLineModel(String id, String name, List<Float> values, @ColorInt int color) {
+        this.id = id;
+        this.name = name;
+        this.values = new float[values.size()];
+        int i = 0;
+        for (Float value : values) {
+            this.values[i++] = value;
+        }
+        this.color = color;
+    }
+
+    /**
+     * @param values series values, taken as is without copying
+     */
+    public GraphLineModel(String id, String name, float[] values, @ColorInt int color) {
+        this.id = id;
+        this.name = name;
+        this.values = values;
+        this.color = color;
+    }
+
+    /**
+     * Line over values that change while it is drawn, so nothing is derived from them up front.
+     */
+    GraphLineModel(String id, String name, float[] values, @ColorInt int color, RangeExtremums extremums) {
+        this(id, name, values, color);
+        this.extremums = extremums;
+        this.lod = LodPyramid.NONE;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @ColorInt
+    public int getColor() {
+        return color;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public float valueAt(int index) {
+        return values[index];
+    }
+
+    RangeExtremums extremums() {
+        RangeExtremums extremums = this.extremums;
+        if (extremums == null) {
+            // threads racing here build equal indexes, any of them may stay
+            extremums = new RangeMinMaxIndex(values);
+            this.extremums = extremums;
+        }
+
+        return extremums;
+    }
+
+    LodPyramid lod() {
+        LodPyramid lod = this.lod;
+        if (lod == null) {
+            lod = new LodPyramid(values);
+            this.lod = lod;
+        }
+
+        return lod;
+    }
+
+    /**
+     * Derives the range index and the lod up front, or again after the values were rewritten in place,
+     * reusing the arrays of the ones already built. Not to be called while the line is drawn.
+     */
+    void prepare(boolean valuesChanged) {
+        final RangeExtremums extremums = this.extremums;
+        if (valuesChanged && extremums instanceof RangeMinMaxIndex) {
+            ((RangeMinMaxIndex) extremums).rebuild();
+        } else if (extremums == null || valuesChanged) {
+            this.extremums = new RangeMinMaxIndex(values);
+        }
+
+        final LodPyramid lod = this.lod;
+        if (valuesChanged && lod != null && lod != LodPyramid.NONE) {
+            lod.rebuild(values);
+        } else if (lod == null || valuesChanged) {
+            this.lod = new LodPyramid(values);
+        }
+    }
+}
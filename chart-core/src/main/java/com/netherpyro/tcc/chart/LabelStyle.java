@@ -0,0 +1,18 @@
+package com.netherpyro.tcc.chart;
+
+import java.util.Locale;
+
+/**
+ * Platform part of the labels: text measuring and localized date patterns.
+ */
+interface LabelStyle {
+
+    float measureText(String text);
+
+    float measureText(char[] text, int start, int count);
+
+    /**
+     * @return pattern of the abscissa dates for the locale, month and day
+     */
+    String datePattern(Locale locale);
+}
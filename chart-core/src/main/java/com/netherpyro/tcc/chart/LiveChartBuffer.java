@@ -0,0 +1,325 @@
+package com.netherpyro.tcc.chart;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Point storage of a chart that is appended to while it is drawn.
+ * <p>
+ * Points live in a ring of {@code slots} entries that is written twice, at {@code slot} and {@code slot + slots},
+ * so any run of up to {@code slots} consecutive points is a contiguous range of the arrays
+ * and can be drawn by the index based code of the static charts.
+ * A window keeps at most half of the slots; the other half is room for the writer to run ahead of
+ * the reader that still draws an older snapshot.
+ * <p>
+ * Min/max of every block of {@link #BLOCK_SIZE} slots is maintained on append.
+ * <p>
+ * There must be a single writer thread and a single reader thread at a time. Every append publishes an immutable
+ * {@link Snapshot}, the reader takes the latest one with {@link #acquire()} without locking. The acquired snapshot
+ * is pinned: when the writer is about to overwrite one of its slots, it moves the window into new arrays instead,
+ * old arrays are never written again. So a snapshot stays valid however long it is drawn.
+ */
+final class LiveChartBuffer {
+
+    private static final int BLOCK_SIZE_SHIFT = 6;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SIZE_SHIFT;
+    private static final int MIN_WINDOW_CAPACITY = 256;
+
+    private final List<GraphLineModel> prototypes;
+    // 0 when the window grows without bounds
+    private final int capacity;
+
+    private int slots;
+    private int windowCapacity;
+    private long[] timestamps;
+    private float[][] values;
+    private float[][] blockMins;
+    private float[][] blockMaxs;
+
+    // writer state
+    private int start = 0;
+    private int count = 0;
+
+    private volatile Snapshot published;
+    // appends claimed by the writer before it reads the pin, see acquire()
+    private volatile long appends = 0;
+    // snapshot of the reader, its slots are not overwritten
+    private volatile Snapshot pinned = null;
+
+    /**
+     * Immutable state of the buffer: the window of points and the arrays it is stored in.
+     * Physical indices of the window are {@code start .. start + count - 1}.
+     */
+    static final class Snapshot {
+
+        final long[] timestamps;
+        final int start;
+        final int count;
+        // lines over the snapshot arrays, shared by the snapshots of the same arrays
+        final List<GraphLineModel> lines;
+        // appends up to this snapshot
+        private final long sequence;
+
+        private Snapshot(long[] timestamps, int start, int count, List<GraphLineModel> lines, long sequence) {
+            this.timestamps = timestamps;
+            this.start = start;
+            this.count = count;
+            this.lines = lines;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Every append moves the written slot by one, so this many appends since the snapshot
+         * stay outside of its slots whatever the arrays they went to.
+         */
+        private long safeAppends() {
+            return timestamps.length / 2 - count;
+        }
+    }
+
+    /**
+     * @param initial  points the window starts with, the latest ones are kept when there are more than the capacity
+     * @param capacity max quantity of points in the window, 0 for no limit
+     */
+    LiveChartBuffer(@NonNull ChartData initial, int capacity) {
+        this.prototypes = initial.rowsData;
+        this.capacity = capacity;
+
+        final TimeAxis initialTimestamps = initial.columnData;
+        final int initialCount = initialTimestamps.size();
+        allocate(capacity > 0 ? capacity : Math.max(initialCount, MIN_WINDOW_CAPACITY));
+
+        final float[] pointValues = new float[prototypes.size()];
+        for (int i = Math.max(0, initialCount - windowCapacity); i < initialCount; i++) {
+            for (int series = 0; series < pointValues.length; series++) {
+                pointValues[series] = prototypes.get(series).values[i];
+            }
+            write(initialTimestamps.get(i), pointValues);
+        }
+
+        publish(bindLines(), 0);
+    }
+
+    /**
+     * Appends a point and publishes a snapshot with it. Writer thread only.
+     *
+     * @param pointValues a value per series, in the order of the initial data
+     */
+    void append(long timestamp, @NonNull float[] pointValues) {
+        if (pointValues.length != prototypes.size()) {
+            throw new IllegalArgumentException("Expected " + prototypes.size() + " values, got " + pointValues.length);
+        }
+
+        // claimed before the pin is read, so either this append sees the pin or the reader sees the claim
+        final long sequence = appends + 1;
+        appends = sequence;
+
+        List<GraphLineModel> lines = published.lines;
+        if (count == windowCapacity) {
+            if (capacity > 0) {
+                // drop the oldest point
+                start = (start + 1) & (slots - 1);
+                count--;
+            } else {
+                lines = relocate(windowCapacity * 2);
+            }
+        }
+
+        if (overwrites(pinned, (start + count) & (slots - 1))) {
+            lines = relocate(windowCapacity);
+        }
+
+        write(timestamp, pointValues);
+        publish(lines, sequence);
+    }
+
+    /**
+     * Takes the latest snapshot and pins it, its slots are not overwritten until the next call.
+     * Reader thread only.
+     */
+    Snapshot acquire() {
+        while (true) {
+            final Snapshot snapshot = published;
+            pinned = snapshot;
+            // appends claimed before the pin was visible to the writer may have overwritten the snapshot
+            if (appends - snapshot.sequence <= snapshot.safeAppends()) {
+                return snapshot;
+            }
+        }
+    }
+
+    private void allocate(int newWindowCapacity) {
+        // both the slots and the block size are powers of two, so the mirrored halves share block boundaries
+        slots = Math.max(Integer.highestOneBit(newWindowCapacity * 2 - 1) << 1, BLOCK_SIZE);
+        windowCapacity = newWindowCapacity;
+
+        final int blocks = (slots * 2) >> BLOCK_SIZE_SHIFT;
+        timestamps = new long[slots * 2];
+        values = new float[prototypes.size()][slots * 2];
+        blockMins = new float[prototypes.size()][blocks];
+        blockMaxs = new float[prototypes.size()][blocks];
+    }
+
+    private boolean overwrites(Snapshot snapshot, int slot) {
+        return snapshot != null && snapshot.timestamps == timestamps
+                && ((slot - snapshot.start) & (slots - 1)) < snapshot.count;
+    }
+
+    /**
+     * Moves the window into new arrays, e.g. twice larger ones. Old arrays are never written again,
+     * so snapshots that still refer to them stay valid.
+     */
+    private List<GraphLineModel> relocate(int newWindowCapacity) {
+        final long[] oldTimestamps = timestamps;
+        final float[][] oldValues = values;
+        final int oldStart = start;
+        final int oldCount = count;
+
+        allocate(newWindowCapacity);
+        start = 0;
+        count = 0;
+
+        final float[] pointValues = new float[prototypes.size()];
+        for (int i = oldStart; i < oldStart + oldCount; i++) {
+            for (int series = 0; series < pointValues.length; series++) {
+                pointValues[series] = oldValues[series][i];
+            }
+            write(oldTimestamps[i], pointValues);
+        }
+
+        return bindLines();
+    }
+
+    private void write(long timestamp, float[] pointValues) {
+        final int slot = (start + count) & (slots - 1);
+        final int mirror = slot + slots;
+
+        timestamps[slot] = timestamp;
+        timestamps[mirror] = timestamp;
+
+        for (int series = 0; series < pointValues.length; series++) {
+            final float value = pointValues[series];
+            values[series][slot] = value;
+            values[series][mirror] = value;
+            updateBlock(series, slot, value);
+            updateBlock(series, mirror, value);
+        }
+
+        count++;
+    }
+
+    /**
+     * Slots are written in order, so a block is restarted by its first slot and every block that lies
+     * inside a window has been written completely since then.
+     */
+    private void updateBlock(int series, int index, float value) {
+        final int block = index >> BLOCK_SIZE_SHIFT;
+        final float[] mins = blockMins[series];
+        final float[] maxs = blockMaxs[series];
+
+        if ((index & (BLOCK_SIZE - 1)) == 0) {
+            mins[block] = value;
+            maxs[block] = value;
+        } else {
+            if (value < mins[block]) {
+                mins[block] = value;
+            }
+
+            if (value > maxs[block]) {
+                maxs[block] = value;
+            }
+        }
+    }
+
+    private List<GraphLineModel> bindLines() {
+        final List<GraphLineModel> lines = new ArrayList<>(prototypes.size());
+        for (int series = 0; series < prototypes.size(); series++) {
+            final GraphLineModel prototype = prototypes.get(series);
+            lines.add(new GraphLineModel(prototype.id, prototype.name, values[series], prototype.color,
+                    new BlockExtremums(values[series], blockMins[series], blockMaxs[series])));
+        }
+
+        return Collections.unmodifiableList(lines);
+    }
+
+    private void publish(List<GraphLineModel> lines, long sequence) {
+        published = new Snapshot(timestamps, start, count, lines, sequence);
+    }
+
+    /**
+     * Range extremums over whole blocks plus a scan of at most two partial blocks.
+     */
+    private static final class BlockExtremums implements RangeExtremums {
+
+        private final float[] values;
+        private final float[] blockMins;
+        private final float[] blockMaxs;
+
+        BlockExtremums(float[] values, float[] blockMins, float[] blockMaxs) {
+            this.values = values;
+            this.blockMins = blockMins;
+            this.blockMaxs = blockMaxs;
+        }
+
+        @Override
+        public float min(int fromIndex, int toIndex) {
+            final int firstBlock = (fromIndex + BLOCK_SIZE - 1) >> BLOCK_SIZE_SHIFT;
+            final int lastBlock = ((toIndex + 1) >> BLOCK_SIZE_SHIFT) - 1;
+
+            if (firstBlock > lastBlock) {
+                return scanMin(fromIndex, toIndex, Float.MAX_VALUE);
+            }
+
+            float min = scanMin(fromIndex, (firstBlock << BLOCK_SIZE_SHIFT) - 1, Float.MAX_VALUE);
+            for (int block = firstBlock; block <= lastBlock; block++) {
+                if (blockMins[block] < min) {
+                    min = blockMins[block];
+                }
+            }
+
+            return scanMin((lastBlock + 1) << BLOCK_SIZE_SHIFT, toIndex, min);
+        }
+
+        @Override
+        public float max(int fromIndex, int toIndex) {
+            final int firstBlock = (fromIndex + BLOCK_SIZE - 1) >> BLOCK_SIZE_SHIFT;
+            final int lastBlock = ((toIndex + 1) >> BLOCK_SIZE_SHIFT) - 1;
+
+            if (firstBlock > lastBlock) {
+                return scanMax(fromIndex, toIndex, -Float.MAX_VALUE);
+            }
+
+            float max = scanMax(fromIndex, (firstBlock << BLOCK_SIZE_SHIFT) - 1, -Float.MAX_VALUE);
+            for (int block = firstBlock; block <= lastBlock; block++) {
+                if (blockMaxs[block] > max) {
+                    max = blockMaxs[block];
+                }
+            }
+
+            return scanMax((lastBlock + 1) << BLOCK_SIZE_SHIFT, toIndex, max);
+        }
+
+        private float scanMin(int fromIndex, int toIndex, float min) {
+            for (int i = fromIndex; i <= toIndex; i++) {
+                if (values[i] < min) {
+                    min = values[i];
+                }
+            }
+
+            return min;
+        }
+
+        private float scanMax(int fromIndex, int toIndex, float max) {
+            for (int i = fromIndex; i <= toIndex; i++) {
+                if (values[i] > max) {
+                    max = values[i];
+                }
+            }
+
+            return max;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.netherpyro.tcc.chart;
+
+/**
+ * Multi-resolution min/max pyramid of a series. Level {@code k} splits the series into buckets
+ * of {@code 2^k} points and keeps the two extremums of every bucket in their time order,
+ * so a bucket is drawn as two points without losing spikes. Level 0 is the raw series.
+ * Takes about twice the memory of the series itself.
+ */
+final class LodPyramid {
+
+    // raw series only
+    static final LodPyramid NONE = new LodPyramid(new float[0]);
+
+    // index is level - 1
+    private final float[][] firsts;
+    private final float[][] seconds;
+
+    LodPyramid(float[] values) {
+        final int levels = values.length < 2 ? 0 : 32 - Integer.numberOfLeadingZeros(values.length - 1);
+        firsts = new float[levels][];
+        seconds = new float[levels][];
+
+        if (levels == 0) {
+            return;
+        }
+
+        int count = values.length;
+        for (int level = 0; level < levels; level++) {
+            count = (count + 1) >> 1;
+            firsts[level] = new float[count];
+            seconds[level] = new float[count];
+        }
+
+        rebuild(values);
+    }
+
+    /**
+     * Fills the levels again from values of the same length as the ones the pyramid was built over,
+     * e.g. after they were rewritten in place. Not to be called while the pyramid is read.
+     */
+    void rebuild(float[] values) {
+        if (firsts.length == 0) {
+            return;
+        }
+
+        // level 1 buckets are pairs of raw points, so it is lossless
+        final int pairs = firsts[0].length;
+        for (int i = 0; i < pairs; i++) {
+            firsts[0][i] = values[i << 1];
+            seconds[0][i] = (i << 1) + 1 < values.length ? values[(i << 1) + 1] : values[i << 1];
+        }
+
+        for (int level = 1; level < firsts.length; level++) {
+            final float[] prevFirsts = firsts[level - 1];
+            final float[] prevSeconds = seconds[level - 1];
+            final float[] first = firsts[level];
+            final float[] second = seconds[level];
+
+            for (int i = 0; i < first.length; i++) {
+                final int left = i << 1;
+                final int right = left + 1 < prevFirsts.length ? left + 1 : left;
+                merge(prevFirsts[left], prevSeconds[left], prevFirsts[right], prevSeconds[right], first, second, i);
+            }
+        }
+    }
+
+    /**
+     * @return the coarsest level that still keeps about two points per pixel, 0 for the raw series
+     */
+    int levelFor(int pointsCount, float widthPx) {
+        int level = 0;
+        while (level < firsts.length && (pointsCount >> level) > widthPx) {
+            level++;
+        }
+        return level;
+    }
+
+    float first(int level, int bucket) {
+        return firsts[level - 1][bucket];
+    }
+
+    float second(int level, int bucket) {
+        return seconds[level - 1][bucket];
+    }
+
+    private static void merge(float leftFirst, float leftSecond, float rightFirst, float rightSecond,
+                              float[] first, float[] second, int index) {
+        final boolean leftMinFirst = leftFirst <= leftSecond;
+        final float leftMin = leftMinFirst ? leftFirst : leftSecond;
+        final float leftMax = leftMinFirst ? leftSecond : leftFirst;
+        final boolean rightMinFirst = rightFirst <= rightSecond;
+        final float rightMin = rightMinFirst ? rightFirst : rightSecond;
+        final float rightMax = rightMinFirst ? rightSecond : rightFirst;
+
+        final boolean minInLeft = leftMin <= rightMin;
+        final boolean maxInLeft = leftMax >= rightMax;
+        final float min = minInLeft ? leftMin : rightMin;
+        final float max = maxInLeft ? leftMax : rightMax;
+
+        final boolean minFirst;
+        if (minInLeft == maxInLeft) {
+            minFirst = minInLeft ? leftMinFirst : rightMinFirst;
+        } else {
+            minFirst = minInLeft;
+        }
+
+        first[index] = minFirst ? min : max;
+        second[index] = minFirst ? max : min;
+    }
+}
@@ -0,0 +1,104 @@
+package com.netherpyro.tcc.chart;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Least recently used cache of formatted ordinate values with their text widths.
+ * Keys are primitive and looked up by a scan, values are formatted into the char buffer of their slot,
+ * so neither a hit nor a miss allocates.
+ */
+final class OrdinateLabelCache {
+
+    // "-2147483648"
+    static final int MAX_LABEL_CHARS = 11;
+
+    private final LabelStyle style;
+    private final int[] values;
+    private final char[][] labels;
+    private final int[] lengths;
+    private final float[] widths;
+    private final long[] lastUses;
+    private int size = 0;
+    private long clock = 0;
+
+    OrdinateLabelCache(int capacity, @NonNull LabelStyle style) {
+        this.style = style;
+        this.values = new int[capacity];
+        this.labels = new char[capacity][MAX_LABEL_CHARS];
+        this.lengths = new int[capacity];
+        this.widths = new float[capacity];
+        this.lastUses = new long[capacity];
+    }
+
+    /**
+     * @return slot of the formatted value, valid until the next call
+     */
+    int slotOf(int value) {
+        int slot = -1;
+        int leastRecent = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                slot = i;
+                break;
+            }
+
+            if (lastUses[i] < lastUses[leastRecent]) {
+                leastRecent = i;
+            }
+        }
+
+        if (slot < 0) {
+            slot = size < values.length ? size++ : leastRecent;
+            values[slot] = value;
+            lengths[slot] = formatInt(value, labels[slot]);
+            widths[slot] = style.measureText(labels[slot], 0, lengths[slot]);
+        }
+
+        lastUses[slot] = ++clock;
+        return slot;
+    }
+
+    /**
+     * @param dst at least {@link #MAX_LABEL_CHARS} long
+     * @return quantity of chars copied
+     */
+    int copyLabel(int slot, @NonNull char[] dst) {
+        System.arraycopy(labels[slot], 0, dst, 0, lengths[slot]);
+        return lengths[slot];
+    }
+
+    float width(int slot) {
+        return widths[slot];
+    }
+
+    /**
+     * Writes decimal representation of the value without allocating a String.
+     *
+     * @return quantity of written chars
+     */
+    private static int formatInt(int value, char[] dst) {
+        long rest = value;
+        int length = 0;
+
+        if (rest < 0) {
+            dst[length++] = '-';
+            rest = -rest;
+        }
+
+        final int digitsStart = length;
+        do {
+            dst[length++] = (char) ('0' + rest % 10);
+            rest /= 10;
+        } while (rest != 0);
+
+        // digits were written in reverse order
+        for (int i = digitsStart, j = length - 1; i < j; i++, j--) {
+            final char tmp = dst[i];
+            dst[i] = dst[j];
+            dst[j] = tmp;
+        }
+
+        return length;
+    }
+}
@@ -0,0 +1,11 @@
+package com.netherpyro.tcc.chart;
+
+/**
+ * Min/max queries over index ranges of a series, both bounds inclusive.
+ */
+interface RangeExtremums {
+
+    float min(int fromIndex, int toIndex);
+
+    float max(int fromIndex, int toIndex);
+}
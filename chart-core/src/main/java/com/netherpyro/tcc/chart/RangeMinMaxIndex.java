@@ -0,0 +1,145 @@
+package com.netherpyro.tcc.chart;
+
+/**
+ * Range extremum index of a series: min/max of fixed-size blocks in a sparse table,
+ * so any range is answered by a lookup over whole blocks plus a scan of at most two partial blocks.
+ * Memory overhead is about {@code 2 * log2(n / BLOCK_SIZE) / BLOCK_SIZE} floats per point.
+ */
+final class RangeMinMaxIndex implements RangeExtremums {
+
+    private static final int BLOCK_SIZE_SHIFT = 6;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SIZE_SHIFT;
+
+    private final float[] values;
+    // level k holds extremums of 2^k consecutive blocks starting at the block index
+    private final float[][] minTable;
+    private final float[][] maxTable;
+
+    RangeMinMaxIndex(float[] values) {
+        this.values = values;
+
+        final int blocks = (values.length + BLOCK_SIZE - 1) >> BLOCK_SIZE_SHIFT;
+        final int levels = blocks == 0 ? 0 : log2(blocks) + 1;
+        minTable = new float[levels][];
+        maxTable = new float[levels][];
+
+        if (levels == 0) {
+            return;
+        }
+
+        minTable[0] = new float[blocks];
+        maxTable[0] = new float[blocks];
+        for (int level = 1; level < levels; level++) {
+            minTable[level] = new float[blocks - (1 << level) + 1];
+            maxTable[level] = new float[blocks - (1 << level) + 1];
+        }
+
+        rebuild();
+    }
+
+    /**
+     * Fills the tables again from the values, e.g. after they were rewritten in place.
+     * Not to be called while the index is queried.
+     */
+    void rebuild() {
+        final int levels = minTable.length;
+        if (levels == 0) {
+            return;
+        }
+
+        final int blocks = minTable[0].length;
+        for (int block = 0; block < blocks; block++) {
+            final int from = block << BLOCK_SIZE_SHIFT;
+            final int to = Math.min(from + BLOCK_SIZE, values.length) - 1;
+            minTable[0][block] = scanMin(from, to);
+            maxTable[0][block] = scanMax(from, to);
+        }
+
+        for (int level = 1; level < levels; level++) {
+            final int half = 1 << (level - 1);
+            final float[] prevMin = minTable[level - 1];
+            final float[] prevMax = maxTable[level - 1];
+            final float[] min = minTable[level];
+            final float[] max = maxTable[level];
+
+            for (int i = 0; i < min.length; i++) {
+                min[i] = prevMin[i] < prevMin[i + half] ? prevMin[i] : prevMin[i + half];
+                max[i] = prevMax[i] > prevMax[i + half] ? prevMax[i] : prevMax[i + half];
+            }
+        }
+    }
+
+    /**
+     * @return min value of the range, both bounds inclusive
+     */
+    @Override
+    public float min(int fromIndex, int toIndex) {
+        final int firstBlock = (fromIndex + BLOCK_SIZE - 1) >> BLOCK_SIZE_SHIFT;
+        final int lastBlock = ((toIndex + 1) >> BLOCK_SIZE_SHIFT) - 1;
+
+        if (firstBlock > lastBlock) {
+            return scanMin(fromIndex, toIndex);
+        }
+
+        final int level = log2(lastBlock - firstBlock + 1);
+        final float[] table = minTable[level];
+        float result = table[firstBlock] < table[lastBlock - (1 << level) + 1]
+                ? table[firstBlock]
+                : table[lastBlock - (1 << level) + 1];
+
+        final float head = scanMin(fromIndex, (firstBlock << BLOCK_SIZE_SHIFT) - 1);
+        if (head < result) result = head;
+
+        final float tail = scanMin((lastBlock + 1) << BLOCK_SIZE_SHIFT, toIndex);
+        if (tail < result) result = tail;
+
+        return result;
+    }
+
+    /**
+     * @return max value of the range, both bounds inclusive
+     */
+    @Override
+    public float max(int fromIndex, int toIndex) {
+        final int firstBlock = (fromIndex + BLOCK_SIZE - 1) >> BLOCK_SIZE_SHIFT;
+        final int lastBlock = ((toIndex + 1) >> BLOCK_SIZE_SHIFT) - 1;
+
+        if (firstBlock > lastBlock) {
+            return scanMax(fromIndex, toIndex);
+        }
+
+        final int level = log2(lastBlock - firstBlock + 1);
+        final float[] table = maxTable[level];
+        float result = table[firstBlock] > table[lastBlock - (1 << level) + 1]
+                ? table[firstBlock]
+                : table[lastBlock - (1 << level) + 1];
+
+        final float head = scanMax(fromIndex, (firstBlock << BLOCK_SIZE_SHIFT) - 1);
+        if (head > result) result = head;
+
+        final float tail = scanMax((lastBlock + 1) << BLOCK_SIZE_SHIFT, toIndex);
+        if (tail > result) result = tail;
+
+        return result;
+    }
+
+    private float scanMin(int fromIndex, int toIndex) {
+        float result = Float.MAX_VALUE;
+        for (int i = fromIndex; i <= toIndex; i++) {
+            if (values[i] < result) result = values[i];
+        }
+        return result;
+    }
+
+    private float scanMax(int fromIndex, int toIndex) {
+        float result = -Float.MAX_VALUE;
+        for (int i = fromIndex; i <= toIndex; i++) {
+            if (values[i] > result) result = values[i];
+        }
+        return result;
+    }
+
+    private static int log2(int value) {
+        return 31 - Integer.numberOfLeadingZeros(value);
+    }
+}
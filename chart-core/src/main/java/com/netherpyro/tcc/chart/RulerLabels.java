@@ -0,0 +1,56 @@
+package com.netherpyro.tcc.chart;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Texts of the ruler floors, the first one is the base floor. Every floor has its own char buffer,
+ * so laying out or handing over a ruler allocates nothing.
+ */
+final class RulerLabels {
+
+    static final int POINTS_IN_GRID_LINE = 4;
+
+    final char[][] chars;
+    final int[] lengths;
+
+    RulerLabels(int floors) {
+        chars = new char[floors][OrdinateLabelCache.MAX_LABEL_CHARS];
+        lengths = new int[floors];
+    }
+
+    int count() {
+        return lengths.length;
+    }
+
+    /**
+     * Lays out the floors of the ordinate window of the resolver.
+     *
+     * @param gridPoints a horizontal line per floor is written here
+     */
+    void layout(@NonNull CoordinateResolver resolver, @NonNull OrdinateLabelCache labelCache, int width, float[] gridPoints) {
+        final float maxValue = resolver.maxOrdinateValue();
+        final float minValue = resolver.minOrdinateValue();
+        final float step = (maxValue - minValue) / (count() - 1);
+
+        for (int i = 0; i < count(); i++) {
+            final float value = minValue + step * i;
+            set(i, labelCache, labelCache.slotOf((int) value));
+
+            final int arrayStartPointer = i * POINTS_IN_GRID_LINE;
+            gridPoints[arrayStartPointer] = 0f;
+            gridPoints[arrayStartPointer + 1] = gridPoints[arrayStartPointer + 3] = resolver.yOfOrdinateValue(value);
+            gridPoints[arrayStartPointer + 2] = (float) width;
+        }
+    }
+
+    void set(int floor, @NonNull OrdinateLabelCache cache, int slot) {
+        lengths[floor] = cache.copyLabel(slot, chars[floor]);
+    }
+
+    void copyFrom(@NonNull RulerLabels other) {
+        for (int i = 0; i < lengths.length; i++) {
+            System.arraycopy(other.chars[i], 0, chars[i], 0, other.lengths[i]);
+            lengths[i] = other.lengths[i];
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.netherpyro.tcc.chart;
+
+/**
+ * Destination of the segments of a {@link SegmentRing}, keeps the ring free of platform graphics.
+ */
+interface SegmentCanvas {
+
+    /**
+     * Segments drawn until {@link #restore()} are scaled and then translated,
+     * the stroke width is divided by {@code strokeScale} so it stays the same on screen.
+     */
+    void transform(float scaleX, float scaleY, float translateX, float translateY, float strokeScale);
+
+    /**
+     * @param offset index of the first float of the first segment
+     * @param count  quantity of floats, four per segment
+     */
+    void drawLines(float[] segments, int offset, int count);
+
+    void restore();
+}
@@ -0,0 +1,245 @@
+package com.netherpyro.tcc.chart;
+
+/**
+ * Line segments of a series kept in a ring keyed by vertex index.
+ * <p>
+ * Segments are projected once with a reference transform and drawn through a transform that maps
+ * the reference onto the current scale and ordinate window, with the stroke width compensated.
+ * While the lod level stays and the transform is close enough to the reference, frames only update
+ * the transform and a sliding window only projects the vertices it exposes.
+ * <p>
+ * Vertex {@code j} is the data point {@code j} on level 0, otherwise it is the first ({@code j} is even)
+ * or the second extremum of the lod bucket {@code j / 2}. Segment {@code j} connects vertices {@code j} and {@code j + 1}.
+ */
+final class SegmentRing {
+
+    private static final int POINTS_IN_SEGMENT = 4;
+    // spare room for the window size jitter of one or two points
+    private static final int CAPACITY_SLACK = 16;
+    // max scale of a transformed frame against the reference, keeps the stroke distortion small
+    private static final float MAX_TRANSFORM_SCALE = 1.5f;
+    // a settled frame still reuses the segments if its scale differs only by the float rounding of panned window edges
+    private static final float MAX_SETTLED_SCALE = 1.001f;
+
+    private float[] segments = new float[0];
+    private int capacity = 0;
+    // valid segments, end exclusive
+    private int fromSegment = 0;
+    private int toSegment = 0;
+
+    private int level = -1;
+    private int originIndex;
+    // reference transform the segments are projected with
+    private float referenceXStep;
+    private float referenceOrdinateScale;
+    private float referenceMinOrdinateValue;
+
+    // reference to screen: scale, then translate
+    private float scaleX = 1f;
+    private float scaleY = 1f;
+    private float translateX = 0f;
+    private float translateY = 0f;
+    private float strokeScale = 1f;
+
+    private CoordinateResolver resolver;
+    private GraphLineModel line;
+
+    /**
+     * Segments of a ring copied out in drawing order, drawn on another thread than the one that updates the ring.
+     */
+    static final class Snapshot {
+
+        private float[] segments = new float[0];
+        private int count = 0;
+        private float scaleX = 1f;
+        private float scaleY = 1f;
+        private float translateX = 0f;
+        private float translateY = 0f;
+        private float strokeScale = 1f;
+
+        /**
+         * @return quantity of drawn segments
+         */
+        int draw(SegmentCanvas canvas) {
+            drawSegments(canvas, scaleX, scaleY, translateX, translateY, strokeScale, segments, 0, count, 0);
+            return count;
+        }
+    }
+
+    /**
+     * Updates the ring on the lod level for the width, every bucket of a level is drawn as its two extremums,
+     * so the segment count is bound by the width whatever the window size is.
+     */
+    void project(CoordinateResolver resolver, ViewportTransform viewport, GraphLineModel line, float widthPx,
+                 int fromIndex, int toIndex, boolean allowTransform) {
+        final int level = line.lod().levelFor(toIndex - fromIndex + 1, widthPx);
+        update(resolver, viewport, line, level, fromIndex, toIndex, allowTransform);
+    }
+
+    /**
+     * @param viewport       x-coordinates of the data indexes
+     * @param fromIndex      first data index in the window
+     * @param toIndex        last data index in the window
+     * @param allowTransform whether the frame may be drawn with a transformed reference,
+     *                       otherwise only with the reference ordinate window and about the reference scale
+     */
+    void update(CoordinateResolver resolver, ViewportTransform viewport, GraphLineModel line, int level,
+                int fromIndex, int toIndex, boolean allowTransform) {
+        final int fromVertex = level == 0 ? fromIndex : (fromIndex >> level) << 1;
+        final int toVertex = level == 0 ? toIndex : ((toIndex >> level) << 1) + 1;
+        final int count = Math.max(0, toVertex - fromVertex);
+
+        this.resolver = resolver;
+        this.line = line;
+        final float xStep = (float) viewport.scale();
+
+        final float maxScale = allowTransform ? MAX_TRANSFORM_SCALE : MAX_SETTLED_SCALE;
+        final float xScale = xStep / referenceXStep;
+        final float yScale = resolver.ordinateScale() / referenceOrdinateScale;
+
+        final boolean reusable = level == this.level
+                && xScale >= 1f / maxScale && xScale <= maxScale
+                && yScale >= 1f / maxScale && yScale <= maxScale
+                && (allowTransform || resolver.minOrdinateValue() == referenceMinOrdinateValue)
+                && count <= capacity
+                && fromVertex < toSegment
+                && toVertex > fromSegment;
+
+        if (!reusable) {
+            if (count > capacity) {
+                capacity = count + CAPACITY_SLACK;
+                segments = new float[capacity * POINTS_IN_SEGMENT];
+            }
+
+            this.level = level;
+            referenceXStep = xStep;
+            referenceOrdinateScale = resolver.ordinateScale();
+            referenceMinOrdinateValue = resolver.minOrdinateValue();
+            originIndex = indexOf(fromVertex);
+            fromSegment = toSegment = fromVertex;
+        }
+
+        // drop segments that left the window
+        if (fromSegment < fromVertex) {
+            fromSegment = Math.min(fromVertex, toSegment);
+        }
+        if (toSegment > toVertex) {
+            toSegment = Math.max(toVertex, fromSegment);
+        }
+
+        // project exposed ones
+        for (int j = fromSegment - 1; j >= fromVertex; j--) {
+            put(j);
+        }
+        fromSegment = Math.min(fromSegment, fromVertex);
+
+        for (int j = toSegment; j < toVertex; j++) {
+            put(j);
+        }
+        toSegment = Math.max(toSegment, toVertex);
+
+        // y = minOrdinateY + (value - minOrdinateValue) * ordinateScale for both the reference and the current window
+        final float sx = xStep / referenceXStep;
+        final float sy = resolver.ordinateScale() / referenceOrdinateScale;
+        final float baseY = resolver.minOrdinateY();
+        scaleX = sx;
+        scaleY = sy;
+        translateX = (float) viewport.xOf(originIndex);
+        translateY = baseY * (1f - sy) + (referenceMinOrdinateValue - resolver.minOrdinateValue()) * resolver.ordinateScale();
+        strokeScale = (float) Math.sqrt(Math.abs(sx * sy));
+    }
+
+    /**
+     * Drops all segments, the next update projects the window from scratch.
+     */
+    void reset() {
+        level = -1;
+        fromSegment = 0;
+        toSegment = 0;
+    }
+
+    /**
+     * @return quantity of drawn segments
+     */
+    int draw(SegmentCanvas canvas) {
+        final int count = toSegment - fromSegment;
+        if (count <= 0) {
+            return 0;
+        }
+
+        final int start = fromSegment % capacity;
+        final int firstPart = Math.min(count, capacity - start);
+        drawSegments(canvas, scaleX, scaleY, translateX, translateY, strokeScale, segments, start, firstPart, count - firstPart);
+        return count;
+    }
+
+    /**
+     * Copies the segments and the transform, so the snapshot is drawn like the ring at the time of the copy.
+     */
+    void copyTo(Snapshot target) {
+        final int count = Math.max(0, toSegment - fromSegment);
+        if (target.segments.length < count * POINTS_IN_SEGMENT) {
+            target.segments = new float[(count + CAPACITY_SLACK) * POINTS_IN_SEGMENT];
+        }
+
+        if (count > 0) {
+            final int start = fromSegment % capacity;
+            final int firstPart = Math.min(count, capacity - start);
+            System.arraycopy(segments, start * POINTS_IN_SEGMENT, target.segments, 0, firstPart * POINTS_IN_SEGMENT);
+            System.arraycopy(segments, 0, target.segments, firstPart * POINTS_IN_SEGMENT, (count - firstPart) * POINTS_IN_SEGMENT);
+        }
+
+        target.count = count;
+        target.scaleX = scaleX;
+        target.scaleY = scaleY;
+        target.translateX = translateX;
+        target.translateY = translateY;
+        target.strokeScale = strokeScale;
+    }
+
+    /**
+     * Draws {@code firstPart} segments from {@code start} and then {@code secondPart} segments from the array start.
+     */
+    private static void drawSegments(SegmentCanvas canvas, float scaleX, float scaleY, float translateX, float translateY,
+                                     float strokeScale, float[] segments, int start, int firstPart, int secondPart) {
+        if (firstPart + secondPart <= 0) {
+            return;
+        }
+
+        canvas.transform(scaleX, scaleY, translateX, translateY, strokeScale);
+        canvas.drawLines(segments, start * POINTS_IN_SEGMENT, firstPart * POINTS_IN_SEGMENT);
+        if (secondPart > 0) {
+            canvas.drawLines(segments, 0, secondPart * POINTS_IN_SEGMENT);
+        }
+        canvas.restore();
+    }
+
+    private void put(int segment) {
+        final int arrayStartPointer = (segment % capacity) * POINTS_IN_SEGMENT;
+        segments[arrayStartPointer] = (indexOf(segment) - originIndex) * referenceXStep;
+        segments[arrayStartPointer + 1] = referenceYOf(valueOf(segment));
+        segments[arrayStartPointer + 2] = (indexOf(segment + 1) - originIndex) * referenceXStep;
+        segments[arrayStartPointer + 3] = referenceYOf(valueOf(segment + 1));
+    }
+
+    private float referenceYOf(float value) {
+        return resolver.minOrdinateY() + (value - referenceMinOrdinateValue) * referenceOrdinateScale;
+    }
+
+    private int indexOf(int vertex) {
+        if (level == 0) {
+            return vertex;
+        }
+
+        final int bucketStart = (vertex >> 1) << level;
+        return (vertex & 1) == 0 ? bucketStart : bucketStart + (1 << level) - 1;
+    }
+
+    private float valueOf(int vertex) {
+        if (level == 0) {
+            return line.values[vertex];
+        }
+
+        return (vertex & 1) == 0 ? line.lod().first(level, vertex >> 1) : line.lod().second(level, vertex >> 1);
+    }
+}
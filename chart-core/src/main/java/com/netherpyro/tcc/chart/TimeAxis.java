@@ -0,0 +1,305 @@
+package com.netherpyro.tcc.chart;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Timestamps of the points of a chart. Evenly spaced timestamps, e.g. daily ones, are kept as a start and
+ * a stride, other ones as varint deltas in blocks of {@value #BLOCK_SIZE} points, each block starting with
+ * its full timestamp, so any point is decoded from its block alone.
+ */
+public abstract class TimeAxis {
+
+    private static final int BLOCK_SIZE_SHIFT = 4;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SIZE_SHIFT;
+
+    TimeAxis() {
+    }
+
+    /**
+     * Encodes the timestamps, the array is not kept.
+     */
+    @NonNull
+    public static TimeAxis of(@NonNull long[] timestamps) {
+        final Builder builder = new Builder();
+        for (long timestamp : timestamps) {
+            builder.add(timestamp);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * A view of an array that is still written, e.g. the ring of a live buffer, the array is read on every access.
+     */
+    static TimeAxis wrap(@NonNull long[] timestamps) {
+        return new ArrayAxis(timestamps);
+    }
+
+    public abstract int size();
+
+    public abstract long get(int index);
+
+    /**
+     * Expects ascending timestamps.
+     *
+     * @return index of the last point at or before the timestamp, -1 when the first point is after it
+     */
+    public abstract int floorIndex(long timestamp);
+
+    /**
+     * @return false when a timestamp may be replaced after it has been read
+     */
+    boolean isImmutable() {
+        return true;
+    }
+
+    /**
+     * Collects timestamps in order, as start and stride while they are evenly spaced.
+     * The points collected so far are delta encoded at the first one that breaks the stride.
+     * A builder builds a single axis.
+     */
+    public static final class Builder {
+
+        private int count = 0;
+        private long start;
+        private long stride;
+        // null while the points are evenly spaced
+        private DeltaAxis encoded = null;
+
+        public void add(long timestamp) {
+            if (encoded != null) {
+                encoded.add(timestamp);
+            } else if (count == 0) {
+                start = timestamp;
+                count++;
+            } else if (count == 1 && timestamp > start) {
+                stride = timestamp - start;
+                count++;
+            } else if (count > 1 && timestamp == start + count * stride) {
+                count++;
+            } else {
+                encoded = new DeltaAxis();
+                for (int i = 0; i < count; i++) {
+                    encoded.add(start + i * stride);
+                }
+                encoded.add(timestamp);
+            }
+        }
+
+        @NonNull
+        public TimeAxis build() {
+            if (encoded != null) {
+                encoded.trim();
+                return encoded;
+            }
+
+            return new StrideAxis(start, stride, count);
+        }
+    }
+
+    private static final class StrideAxis extends TimeAxis {
+
+        private final long start;
+        private final long stride;
+        private final int count;
+
+        StrideAxis(long start, long stride, int count) {
+            this.start = start;
+            this.stride = stride;
+            this.count = count;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public long get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index " + index + " of " + count + " points");
+            }
+
+            return start + index * stride;
+        }
+
+        @Override
+        public int floorIndex(long timestamp) {
+            if (count == 0 || timestamp < start) {
+                return -1;
+            }
+
+            // a single point has no stride, a timestamp past the last point may be too far for the difference to fit a long
+            if (count == 1 || timestamp >= start + (count - 1) * stride) {
+                return count - 1;
+            }
+            return (int) ((timestamp - start) / stride);
+        }
+    }
+
+    /**
+     * Zigzag varint deltas, the offset of every block is kept so a point is at most a block of deltas away.
+     */
+    private static final class DeltaAxis extends TimeAxis {
+
+        private int count = 0;
+        private long last;
+        private long[] blockStarts = new long[16];
+        private int[] blockOffsets = new int[16];
+        private byte[] deltas = new byte[256];
+        private int deltasSize = 0;
+
+        void add(long timestamp) {
+            final int block = count >> BLOCK_SIZE_SHIFT;
+
+            if ((count & (BLOCK_SIZE - 1)) == 0) {
+                if (block == blockStarts.length) {
+                    blockStarts = Arrays.copyOf(blockStarts, block * 2);
+                    blockOffsets = Arrays.copyOf(blockOffsets, block * 2);
+                }
+
+                blockStarts[block] = timestamp;
+                blockOffsets[block] = deltasSize;
+            } else {
+                final long delta = timestamp - last;
+                writeVarint((delta << 1) ^ (delta >> 63));
+            }
+
+            last = timestamp;
+            count++;
+        }
+
+        void trim() {
+            final int blocks = (count + BLOCK_SIZE - 1) >> BLOCK_SIZE_SHIFT;
+            blockStarts = Arrays.copyOf(blockStarts, blocks);
+            blockOffsets = Arrays.copyOf(blockOffsets, blocks);
+            deltas = Arrays.copyOf(deltas, deltasSize);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public long get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index " + index + " of " + count + " points");
+            }
+
+            final int block = index >> BLOCK_SIZE_SHIFT;
+            long timestamp = blockStarts[block];
+            int position = blockOffsets[block];
+
+            for (int i = index & (BLOCK_SIZE - 1); i > 0; i--) {
+                long zigzag = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = deltas[position++];
+                    zigzag |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+
+                timestamp += (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+
+            return timestamp;
+        }
+
+        @Override
+        public int floorIndex(long timestamp) {
+            // the last block that starts at or before the timestamp
+            int low = 0;
+            int high = ((count + BLOCK_SIZE - 1) >> BLOCK_SIZE_SHIFT) - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                if (blockStarts[mid] <= timestamp) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+
+            if (high < 0) {
+                return -1;
+            }
+
+            // the points of the block are decoded in order until one is after the timestamp
+            final int blockEnd = Math.min((high + 1) << BLOCK_SIZE_SHIFT, count);
+            long current = blockStarts[high];
+            int position = blockOffsets[high];
+            int index = high << BLOCK_SIZE_SHIFT;
+
+            while (index + 1 < blockEnd) {
+                long zigzag = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = deltas[position++];
+                    zigzag |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+
+                current += (zigzag >>> 1) ^ -(zigzag & 1);
+                if (current > timestamp) {
+                    break;
+                }
+                index++;
+            }
+
+            return index;
+        }
+
+        private void writeVarint(long value) {
+            if (deltasSize + 10 > deltas.length) {
+                deltas = Arrays.copyOf(deltas, deltas.length * 2);
+            }
+
+            while ((value & ~0x7FL) != 0) {
+                deltas[deltasSize++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            deltas[deltasSize++] = (byte) value;
+        }
+    }
+
+    private static final class ArrayAxis extends TimeAxis {
+
+        private final long[] timestamps;
+
+        ArrayAxis(long[] timestamps) {
+            this.timestamps = timestamps;
+        }
+
+        @Override
+        public int size() {
+            return timestamps.length;
+        }
+
+        @Override
+        public long get(int index) {
+            return timestamps[index];
+        }
+
+        @Override
+        public int floorIndex(long timestamp) {
+            int found = Arrays.binarySearch(timestamps, timestamp);
+            if (found < 0) {
+                return -found - 2;
+            }
+
+            while (found + 1 < timestamps.length && timestamps[found + 1] == timestamp) {
+                found++;
+            }
+            return found;
+        }
+
+        @Override
+        boolean isImmutable() {
+            return false;
+        }
+    }
+}
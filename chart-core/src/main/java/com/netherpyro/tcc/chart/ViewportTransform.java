@@ -0,0 +1,100 @@
+package com.netherpyro.tcc.chart;
+
+/**
+ * Maps data indexes to x-coordinates of a drawport in closed form: {@code x = left + (index - fromIndex) * scale}.
+ * <p>
+ * The window is a fractional index range, so its edges may fall between two points and the chart
+ * scrolls by pixels instead of snapping from point to point. The full window puts the first point
+ * on the left edge and the last one on the right edge. Computed in double precision, so the
+ * coordinates don't drift over millions of points.
+ */
+final class ViewportTransform {
+
+    private final double left;
+    private final double width;
+    // data indexes of the points are offset .. offset + count - 1
+    private int offset = 0;
+    private int count = 0;
+    private double fromIndex = 0;
+    private double toIndex = 0;
+    private double scale = 0;
+
+    ViewportTransform(float left, float width) {
+        this.left = left;
+        this.width = width;
+    }
+
+    /**
+     * Sets the data indexes of the points, the window is kept until it is set again.
+     *
+     * @param offset data index of the first point, e.g. the physical index in a ring buffer
+     */
+    void setPoints(int offset, int count) {
+        this.offset = offset;
+        this.count = count;
+    }
+
+    /**
+     * @param fromIndex fractional data index on the left edge
+     * @param toIndex   fractional data index on the right edge
+     */
+    void setWindow(double fromIndex, double toIndex) {
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+        this.scale = toIndex > fromIndex ? width / (toIndex - fromIndex) : 0;
+    }
+
+    /**
+     * Sets the window as parts of the full range of points, e.g. the history controller bounds over its width.
+     *
+     * @param from left edge, 0 for the first point
+     * @param to   right edge, 1 for the last point
+     */
+    void setWindowFraction(double from, double to) {
+        final int last = Math.max(0, count - 1);
+        setWindow(offset + from * last, offset + to * last);
+    }
+
+    /**
+     * @return first point drawn, the one on the left edge or the nearest beyond it
+     */
+    int firstIndex() {
+        return (int) Math.max(offset, Math.min(offset + count - 1, Math.floor(fromIndex)));
+    }
+
+    /**
+     * @return last point drawn, the one on the right edge or the nearest beyond it
+     */
+    int lastIndex() {
+        return (int) Math.max(offset, Math.min(offset + count - 1, Math.ceil(toIndex)));
+    }
+
+    /**
+     * @return distance between neighbour points
+     */
+    double scale() {
+        return scale;
+    }
+
+    double xOf(double index) {
+        return left + (index - fromIndex) * scale;
+    }
+
+    /**
+     * @return fractional data index at the x-coordinate
+     */
+    double indexAt(double x) {
+        return scale > 0 ? fromIndex + (x - left) / scale : fromIndex;
+    }
+
+    /**
+     * Maps the consecutive data indexes {@code firstIndex .. firstIndex + length - 1} to x-coordinates.
+     * Indexes are exact ints, a float would lose them beyond 2^24 points.
+     */
+    void project(int firstIndex, int length, float[] dst, int dstOffset) {
+        final double start = left + (firstIndex - fromIndex) * scale;
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = (float) (start + i * scale);
+        }
+    }
+}
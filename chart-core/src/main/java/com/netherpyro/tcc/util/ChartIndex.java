@@ -0,0 +1,168 @@
+package com.netherpyro.tcc.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Byte ranges and metadata of the charts in the root array of a json file, so a chart is parsed
+ * only when it is needed. Built by one scan of the json, which skips the values instead of parsing them.
+ * <pre>
+ * index file:  int magic, int version, int chartCount,
+ *              chartCount * (long offset, int length, int pointCount, int seriesCount,
+ *                            seriesCount * (utf id, utf name, int color))
+ * </pre>
+ */
+public final class ChartIndex {
+
+    private static final int MAGIC = 0x43494458; // "CIDX"
+    private static final int VERSION = 1;
+
+    /**
+     * A chart of the json, its series are in the order of the {@code types} of the chart.
+     */
+    public static final class Entry {
+
+        final long offset;
+        final int length;
+        final int pointCount;
+        final String[] ids;
+        final String[] names;
+        final int[] colors;
+
+        Entry(long offset, int length, int pointCount, String[] ids, String[] names, int[] colors) {
+            this.offset = offset;
+            this.length = length;
+            this.pointCount = pointCount;
+            this.ids = ids;
+            this.names = names;
+            this.colors = colors;
+        }
+
+        /**
+         * @return position of the chart object in the json
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return size of the chart object in bytes
+         */
+        public int getLength() {
+            return length;
+        }
+
+        public int getPointCount() {
+            return pointCount;
+        }
+
+        public int getSeriesCount() {
+            return ids.length;
+        }
+
+        public String getId(int series) {
+            return ids[series];
+        }
+
+        public String getName(int series) {
+            return names[series];
+        }
+
+        public int getColor(int series) {
+            return colors[series];
+        }
+    }
+
+    private final List<Entry> entries;
+
+    private ChartIndex(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Scans the json root array, the stream is read to its end but not closed.
+     */
+    public static ChartIndex build(InputStream json) throws IOException {
+        final JsonParser parser = new JsonParser();
+        final List<Entry> entries = new ArrayList<>();
+
+        new JsonChartSplitter().split(json, new JsonChartSplitter.Consumer() {
+            @Override
+            public void onChart(int index, long offset, byte[] chartJson) throws IOException {
+                entries.add(parser.parseEntry(offset, chartJson));
+            }
+        });
+
+        return new ChartIndex(entries);
+    }
+
+    /**
+     * Reads an index written by {@link #write}, the stream is not closed.
+     */
+    public static ChartIndex read(InputStream in) throws IOException {
+        final DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("Not a chart index");
+        }
+
+        final int chartCount = data.readInt();
+        final List<Entry> entries = new ArrayList<>(chartCount);
+        for (int i = 0; i < chartCount; i++) {
+            final long offset = data.readLong();
+            final int length = data.readInt();
+            final int pointCount = data.readInt();
+            final int seriesCount = data.readInt();
+
+            final String[] ids = new String[seriesCount];
+            final String[] names = new String[seriesCount];
+            final int[] colors = new int[seriesCount];
+            for (int j = 0; j < seriesCount; j++) {
+                ids[j] = data.readUTF();
+                names[j] = data.readUTF();
+                colors[j] = data.readInt();
+            }
+
+            entries.add(new Entry(offset, length, pointCount, ids, names, colors));
+        }
+
+        return new ChartIndex(entries);
+    }
+
+    /**
+     * The stream is flushed but not closed.
+     */
+    public void write(OutputStream out) throws IOException {
+        final DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(entries.size());
+
+        for (Entry entry : entries) {
+            data.writeLong(entry.offset);
+            data.writeInt(entry.length);
+            data.writeInt(entry.pointCount);
+            data.writeInt(entry.ids.length);
+            for (int j = 0; j < entry.ids.length; j++) {
+                data.writeUTF(entry.ids[j]);
+                data.writeUTF(entry.names[j]);
+                data.writeInt(entry.colors[j]);
+            }
+        }
+
+        data.flush();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Entry get(int chart) {
+        return entries.get(chart);
+    }
+}
@@ -0,0 +1,34 @@
+package com.netherpyro.tcc.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable primitive float array used as a column buffer while streaming json.
+ */
+final class FloatArrayBuffer {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private float[] values;
+    private int size = 0;
+
+    FloatArrayBuffer() {
+        values = new float[DEFAULT_CAPACITY];
+    }
+
+    void add(float value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1));
+        }
+
+        values[size++] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    float[] toArray() {
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+}
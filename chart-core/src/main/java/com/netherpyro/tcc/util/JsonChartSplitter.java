@@ -0,0 +1,91 @@
+package com.netherpyro.tcc.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Cuts the root array of a json stream into the bytes of its objects without parsing them,
+ * every object is handed over as soon as its closing brace is read.
+ * Structural chars are ASCII and never part of a multibyte UTF-8 sequence, so bytes are scanned as they are.
+ */
+class JsonChartSplitter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    interface Consumer {
+        /**
+         * @param offset position of the opening brace in the stream
+         */
+        void onChart(int index, long offset, byte[] chartJson) throws IOException;
+    }
+
+    void split(InputStream in, Consumer consumer) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        ByteArrayOutputStream chart = null;
+        long chartOffset = 0;
+        // stream position of the buffer start
+        long position = 0;
+        int depth = 0;
+        int index = 0;
+        boolean inString = false;
+        boolean escaped = false;
+
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            int chartStart = chart != null ? 0 : -1;
+
+            for (int i = 0; i < read; i++) {
+                final byte b = buffer[i];
+
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (b == '\\') {
+                        escaped = true;
+                    } else if (b == '"') {
+                        inString = false;
+                    }
+                    continue;
+                }
+
+                switch (b) {
+                    case '"':
+                        inString = true;
+                        break;
+                    case '[':
+                    case '{':
+                        depth++;
+                        if (depth == 1 && b != '[') {
+                            throw new IOException("Root of the json is not an array");
+                        }
+                        if (depth == 2) {
+                            chart = new ByteArrayOutputStream();
+                            chartStart = i;
+                            chartOffset = position + i;
+                        }
+                        break;
+                    case ']':
+                    case '}':
+                        if (depth == 2) {
+                            chart.write(buffer, chartStart, i + 1 - chartStart);
+                            consumer.onChart(index++, chartOffset, chart.toByteArray());
+                            chart = null;
+                            chartStart = -1;
+                        }
+                        depth--;
+                        break;
+                }
+            }
+
+            if (chart != null) {
+                chart.write(buffer, chartStart, read - chartStart);
+            }
+            position += read;
+        }
+
+        if (depth != 0) {
+            throw new IOException("Unexpected end of json");
+        }
+    }
+}
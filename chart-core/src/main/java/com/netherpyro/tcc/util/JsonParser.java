@@ -0,0 +1,313 @@
+package com.netherpyro.tcc.util;
+
+import com.google.gson.stream.JsonReader;
+import com.netherpyro.tcc.chart.ChartData;
+import com.netherpyro.tcc.chart.GraphLineModel;
+import com.netherpyro.tcc.chart.TimeAxis;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author mmikhailov on 17/03/2019.
+ */
+public class JsonParser {
+
+    private final String X_COLUMN = "x";
+    // chart object, columns array, column array
+    private static final int COLUMN_DEPTH = 3;
+
+    public List<ChartData> parse(String json) throws IOException {
+        return readCharts(new JsonReader(new StringReader(json)));
+    }
+
+    /**
+     * Reads charts token by token straight into primitive column buffers without building a json tree or boxing the values.
+     */
+    public List<ChartData> parse(InputStream in) throws IOException {
+        return readCharts(new JsonReader(new InputStreamReader(in, "UTF-8")));
+    }
+
+    /**
+     * Reads a single chart object, e.g. one cut out of the root array by {@link JsonChartSplitter}.
+     */
+    public ChartData parseChart(InputStream in) throws IOException {
+        final JsonReader reader = new JsonReader(new InputStreamReader(in, "UTF-8"));
+
+        try {
+            return readChart(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads the series and the point count of a chart object without parsing its values.
+     *
+     * @param offset position of the chart in its json file
+     */
+    ChartIndex.Entry parseEntry(long offset, byte[] chartJson) throws IOException {
+        final byte[] counted = countColumnValues(chartJson);
+        final JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(counted), "UTF-8"));
+        final Map<String, String> columnsTypes = new LinkedHashMap<>();
+        final Map<String, String> columnsNames = new HashMap<>();
+        final Map<String, Integer> columnsColors = new HashMap<>();
+        int pointCount = 0;
+
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+
+                switch (name) {
+                    case "columns":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            reader.beginArray();
+                            final String key = reader.nextString();
+                            final int valueCount = reader.nextInt();
+                            if (key.equals(X_COLUMN)) {
+                                pointCount = valueCount;
+                            }
+                            reader.endArray();
+                        }
+                        reader.endArray();
+                        break;
+                    case "types":
+                        readStringMap(reader, columnsTypes);
+                        break;
+                    case "names":
+                        readStringMap(reader, columnsNames);
+                        break;
+                    case "colors":
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            final String column = reader.nextName();
+                            columnsColors.put(column, parseColor(reader.nextString()));
+                        }
+                        reader.endObject();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } finally {
+            reader.close();
+        }
+
+        columnsTypes.remove(X_COLUMN);
+        final String[] ids = columnsTypes.keySet().toArray(new String[columnsTypes.size()]);
+        final String[] names = new String[ids.length];
+        final int[] colors = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            // an index has no nulls, a missing name is empty
+            final String seriesName = columnsNames.get(ids[i]);
+            names[i] = seriesName != null ? seriesName : "";
+            colors[i] = columnsColors.containsKey(ids[i]) ? columnsColors.get(ids[i]) : 0;
+        }
+
+        return new ChartIndex.Entry(offset, chartJson.length, pointCount, ids, names, colors);
+    }
+
+    /**
+     * Replaces the values of every column by their count, {@code ["y0", 1, 2, 3]} becomes {@code ["y0",3]}.
+     * Only structural bytes are looked at, which is much cheaper than tokenizing the values.
+     */
+    private static byte[] countColumnValues(byte[] chartJson) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(chartJson.length, 4096));
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        boolean inColumn = false;
+        // past the key of a column, bytes are counted instead of copied
+        boolean inValues = false;
+        int valueCount = 0;
+
+        for (int i = 0; i < chartJson.length; i++) {
+            final byte b = chartJson[i];
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else {
+                switch (b) {
+                    case '"':
+                        inString = true;
+                        break;
+                    case '[':
+                    case '{':
+                        depth++;
+                        if (depth == COLUMN_DEPTH) {
+                            inColumn = b == '[';
+                        }
+                        break;
+                    case ']':
+                    case '}':
+                        if (depth == COLUMN_DEPTH && inColumn) {
+                            if (!inValues) {
+                                out.write(',');
+                            }
+                            final String count = Integer.toString(inValues ? valueCount : 0);
+                            for (int c = 0; c < count.length(); c++) {
+                                out.write(count.charAt(c));
+                            }
+                            inColumn = false;
+                            inValues = false;
+                        }
+                        depth--;
+                        break;
+                    case ',':
+                        if (depth == COLUMN_DEPTH && inColumn) {
+                            if (inValues) {
+                                valueCount++;
+                            } else {
+                                out.write(b);
+                                inValues = true;
+                                valueCount = 1;
+                            }
+                            continue;
+                        }
+                        break;
+                }
+            }
+
+            if (!inValues) {
+                out.write(b);
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    private List<ChartData> readCharts(JsonReader reader) throws IOException {
+        final List<ChartData> chartDataList = new ArrayList<>();
+
+        try {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                chartDataList.add(readChart(reader));
+            }
+            reader.endArray();
+        } finally {
+            reader.close();
+        }
+
+        return chartDataList;
+    }
+
+    private ChartData readChart(JsonReader reader) throws IOException {
+        final Map<String, String> columnsTypes = new LinkedHashMap<>();
+        final Map<String, String> columnsNames = new HashMap<>();
+        final Map<String, Integer> columnsColors = new HashMap<>();
+        final Map<String, float[]> columnsValues = new HashMap<>();
+        TimeAxis abscissa = TimeAxis.of(new long[0]);
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+
+            switch (name) {
+                case "columns":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        reader.beginArray();
+                        final String key = reader.nextString();
+
+                        if (key.equals(X_COLUMN)) {
+                            final TimeAxis.Builder builder = new TimeAxis.Builder();
+                            while (reader.hasNext()) {
+                                builder.add(reader.nextLong());
+                            }
+                            abscissa = builder.build();
+                        } else {
+                            final FloatArrayBuffer buffer = new FloatArrayBuffer();
+                            while (reader.hasNext()) {
+                                buffer.add((float) reader.nextDouble());
+                            }
+                            columnsValues.put(key, buffer.toArray());
+                        }
+
+                        reader.endArray();
+                    }
+                    reader.endArray();
+                    break;
+                case "types":
+                    readStringMap(reader, columnsTypes);
+                    break;
+                case "names":
+                    readStringMap(reader, columnsNames);
+                    break;
+                case "colors":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        final String column = reader.nextName();
+                        columnsColors.put(column, parseColor(reader.nextString()));
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        final List<GraphLineModel> ordinates = new ArrayList<>();
+
+        for (String column : columnsTypes.keySet()) {
+            if (column.equals(X_COLUMN)) continue;
+
+            final float[] values = columnsValues.get(column);
+            final GraphLineModel line = new GraphLineModel(
+                    column,
+                    columnsNames.get(column),
+                    values != null ? values : new float[0],
+                    columnsColors.containsKey(column) ? columnsColors.get(column) : 0
+            );
+
+            ordinates.add(line);
+        }
+
+        return new ChartData(abscissa, ordinates);
+    }
+
+    /**
+     * @param color {@code #RRGGBB} or {@code #AARRGGBB}, like the hex colors of {@code android.graphics.Color#parseColor}
+     */
+    private int parseColor(String color) {
+        if (color.length() != 7 && color.length() != 9 || color.charAt(0) != '#') {
+            throw new IllegalArgumentException("Unknown color " + color);
+        }
+
+        long value = Long.parseLong(color.substring(1), 16);
+        if (color.length() == 7) {
+            value |= 0xFF000000L;
+        }
+
+        return (int) value;
+    }
+
+    private void readStringMap(JsonReader reader, Map<String, String> target) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String key = reader.nextName();
+            target.put(key, reader.nextString());
+        }
+        reader.endObject();
+    }
+
+}
\ No newline at end of file
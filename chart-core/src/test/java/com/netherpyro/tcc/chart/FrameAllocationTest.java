@@ -0,0 +1,194 @@
+package com.netherpyro.tcc.chart;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Frames of a chart panned by a point per frame, through the calls the graph of the chart view and the chart renderer
+ * make per frame: range extremums, {@link SegmentRing#project}, the snapshot copy of a geometry frame,
+ * {@link AbscissaLabelLayout#layout} and {@link RulerLabels#layout}. Once the labels of the panned range are
+ * formatted and the buffers are sized, a frame must not allocate.
+ */
+public class FrameAllocationTest {
+
+    private static final int POINTS = 100000;
+    private static final int SERIES = 2;
+    private static final int WINDOW_POINTS = 500;
+    private static final int FRAMES = 2000;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 900;
+    private static final int PADDING = 48;
+    private static final int RULER_FLOORS = 6;
+
+    private final LabelStyle style = new FixedLabelStyle();
+    private GraphLineModel[] lines;
+    private SegmentRing[] rings;
+    private SegmentRing.Snapshot[] snapshots;
+    private CoordinateResolver resolver;
+    private ViewportTransform viewport;
+    private AbscissaLabelLayout abscissaLabels;
+    private OrdinateLabelCache ordinateLabelCache;
+    private RulerLabels rulerLabels;
+    private float[] rulerGridPoints;
+    private final CountingCanvas canvas = new CountingCanvas();
+
+    @Before
+    public void setUp() {
+        final Random random = new Random(42);
+        final long[] timestamps = new long[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            timestamps[i] = 1542412800000L + i * 86400000L;
+        }
+
+        lines = new GraphLineModel[SERIES];
+        rings = new SegmentRing[SERIES];
+        snapshots = new SegmentRing.Snapshot[SERIES];
+        for (int s = 0; s < SERIES; s++) {
+            final float[] values = new float[POINTS];
+            float value = 1000f;
+            for (int i = 0; i < POINTS; i++) {
+                value = Math.max(0f, value + (float) random.nextGaussian() * 25f);
+                values[i] = Math.round(value);
+            }
+
+            lines[s] = new GraphLineModel("y" + s, "Series " + s, values, 0xFF000000);
+            // built when the data is bound, not per frame
+            lines[s].lod();
+            lines[s].extremums();
+            rings[s] = new SegmentRing();
+            snapshots[s] = new SegmentRing.Snapshot();
+        }
+
+        resolver = new CoordinateResolver(HEIGHT, 0, PADDING);
+        viewport = new ViewportTransform(0, WIDTH);
+        viewport.setPoints(0, POINTS);
+
+        final DateLabelTable dates = new DateLabelTable(TimeAxis.of(timestamps), style);
+        abscissaLabels = new AbscissaLabelLayout(dates, style.measureText("WWW 99"), 24f);
+        ordinateLabelCache = new OrdinateLabelCache(64, style);
+        rulerLabels = new RulerLabels(RULER_FLOORS);
+        rulerGridPoints = new float[RULER_FLOORS * RulerLabels.POINTS_IN_GRID_LINE];
+    }
+
+    @Test
+    public void settledPanDoesNotAllocate() {
+        assertFramesDoNotAllocate(false);
+    }
+
+    @Test
+    public void transformedPanDoesNotAllocate() {
+        assertFramesDoNotAllocate(true);
+    }
+
+    private void assertFramesDoNotAllocate(boolean allowTransform) {
+        final com.sun.management.ThreadMXBean threads = threadMXBean();
+        assumeTrue(threads != null);
+        final long threadId = Thread.currentThread().getId();
+
+        // formats the labels of the panned range, sizes the rings and compiles the frame path
+        for (int i = 0; i < 5; i++) {
+            panFrames(allowTransform);
+        }
+
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        final long checksum = panFrames(allowTransform);
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals("Bytes allocated by " + FRAMES + " frames, checksum " + checksum, 0L, allocated);
+    }
+
+    private long panFrames(boolean allowTransform) {
+        long checksum = 0;
+
+        for (int frame = 0; frame < FRAMES; frame++) {
+            final int fromIndex = frame;
+            final int toIndex = frame + WINDOW_POINTS - 1;
+            viewport.setWindow(fromIndex, toIndex);
+
+            float min = Float.MAX_VALUE;
+            float max = -Float.MAX_VALUE;
+            for (GraphLineModel line : lines) {
+                min = Math.min(min, line.extremums().min(fromIndex, toIndex));
+                max = Math.max(max, line.extremums().max(fromIndex, toIndex));
+            }
+            resolver.setOrdinateWindow(min, max);
+
+            for (int s = 0; s < SERIES; s++) {
+                rings[s].project(resolver, viewport, lines[s], WIDTH, fromIndex, toIndex, allowTransform);
+                checksum += rings[s].draw(canvas);
+                rings[s].copyTo(snapshots[s]);
+                checksum += snapshots[s].draw(canvas);
+            }
+
+            abscissaLabels.layout(fromIndex, toIndex, POINTS - 1, (float) viewport.xOf(fromIndex), (float) viewport.scale());
+            for (int i = 0; i < abscissaLabels.count(); i++) {
+                checksum += abscissaLabels.label(i).length() + (long) abscissaLabels.x(i);
+            }
+
+            rulerLabels.layout(resolver, ordinateLabelCache, WIDTH, rulerGridPoints);
+            for (int floor = 0; floor < RULER_FLOORS; floor++) {
+                checksum += rulerLabels.lengths[floor] + (long) rulerGridPoints[floor * RulerLabels.POINTS_IN_GRID_LINE + 1];
+            }
+        }
+
+        return checksum + canvas.floats;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        final java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+
+        final com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        if (!counter.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+
+        counter.setThreadAllocatedMemoryEnabled(true);
+        return counter;
+    }
+
+    private static final class CountingCanvas implements SegmentCanvas {
+
+        long floats = 0;
+
+        @Override
+        public void transform(float scaleX, float scaleY, float translateX, float translateY, float strokeScale) {
+        }
+
+        @Override
+        public void drawLines(float[] segments, int offset, int count) {
+            floats += count;
+        }
+
+        @Override
+        public void restore() {
+        }
+    }
+
+    private static final class FixedLabelStyle implements LabelStyle {
+
+        @Override
+        public float measureText(String text) {
+            return text.length() * 18f;
+        }
+
+        @Override
+        public float measureText(char[] text, int start, int count) {
+            return count * 18f;
+        }
+
+        @Override
+        public String datePattern(Locale locale) {
+            return "MMM d";
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.netherpyro.tcc.chart;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Snapshots of a bounded buffer against the points appended after them.
+ */
+public class LiveChartBufferTest {
+
+    private static final int CAPACITY = 300;
+
+    @Test
+    public void acquiredSnapshotOutlivesAnyQuantityOfAppends() {
+        final LiveChartBuffer buffer = newBuffer();
+        appendPoints(buffer, 0, CAPACITY);
+
+        final LiveChartBuffer.Snapshot snapshot = buffer.acquire();
+        final long[] expected = copyWindow(snapshot);
+
+        // several laps over the slots of the snapshot
+        appendPoints(buffer, CAPACITY, CAPACITY * 10);
+
+        assertWindow(expected, snapshot);
+    }
+
+    @Test
+    public void writerKeepsArraysWhileNothingIsPinned() {
+        final LiveChartBuffer buffer = newBuffer();
+        appendPoints(buffer, 0, CAPACITY);
+        final long[] timestamps = buffer.acquire().timestamps;
+
+        for (int i = CAPACITY; i < CAPACITY * 10; i++) {
+            appendPoints(buffer, i, i + 1);
+            // the reader takes every snapshot, so the writer never laps it
+            assertSame(timestamps, buffer.acquire().timestamps);
+        }
+    }
+
+    @Test
+    public void lappedSnapshotMovesTheWindow() {
+        final LiveChartBuffer buffer = newBuffer();
+        appendPoints(buffer, 0, CAPACITY);
+        final LiveChartBuffer.Snapshot snapshot = buffer.acquire();
+
+        appendPoints(buffer, CAPACITY, CAPACITY * 10);
+        final LiveChartBuffer.Snapshot latest = buffer.acquire();
+
+        assertNotSame(snapshot.timestamps, latest.timestamps);
+        assertEquals(CAPACITY, latest.count);
+        for (int i = 0; i < latest.count; i++) {
+            assertEquals(CAPACITY * 9 + i, latest.timestamps[latest.start + i]);
+            assertEquals(CAPACITY * 9 + i, latest.lines.get(0).values[latest.start + i], 0f);
+        }
+    }
+
+    private static LiveChartBuffer newBuffer() {
+        final GraphLineModel line = new GraphLineModel("y0", "Series 0", new float[0], 0xFF000000);
+        return new LiveChartBuffer(new ChartData(new long[0], Collections.singletonList(line)), CAPACITY);
+    }
+
+    private static void appendPoints(LiveChartBuffer buffer, int from, int to) {
+        final float[] values = new float[1];
+        for (int i = from; i < to; i++) {
+            values[0] = i;
+            buffer.append(i, values);
+        }
+    }
+
+    private static long[] copyWindow(LiveChartBuffer.Snapshot snapshot) {
+        final long[] window = new long[snapshot.count];
+        System.arraycopy(snapshot.timestamps, snapshot.start, window, 0, snapshot.count);
+        return window;
+    }
+
+    private static void assertWindow(long[] expected, LiveChartBuffer.Snapshot snapshot) {
+        assertEquals(expected.length, snapshot.count);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], snapshot.timestamps[snapshot.start + i]);
+            assertEquals(expected[i], snapshot.lines.get(0).values[snapshot.start + i], 0f);
+        }
+    }
+}
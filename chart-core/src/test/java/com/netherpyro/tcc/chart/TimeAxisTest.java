@@ -0,0 +1,140 @@
+package com.netherpyro.tcc.chart;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Encoded axes against the plain arrays they are built from, on random timestamps of every kind of spacing.
+ */
+public class TimeAxisTest {
+
+    private static final long START_TIMESTAMP = 1542412800000L;
+    private static final long DAY = 86400000L;
+    private static final int ROUNDS = 200;
+
+    @Test
+    public void evenlySpaced() {
+        final Random random = new Random(1);
+        for (int round = 0; round < ROUNDS; round++) {
+            final long[] timestamps = new long[random.nextInt(300)];
+            final long stride = 1 + random.nextInt((int) DAY);
+            for (int i = 0; i < timestamps.length; i++) {
+                timestamps[i] = START_TIMESTAMP + i * stride;
+            }
+
+            assertSameAsArray(timestamps, random);
+        }
+    }
+
+    @Test
+    public void jittered() {
+        final Random random = new Random(2);
+        for (int round = 0; round < ROUNDS; round++) {
+            final long[] timestamps = new long[random.nextInt(300)];
+            for (int i = 0; i < timestamps.length; i++) {
+                timestamps[i] = START_TIMESTAMP + i * DAY + random.nextInt(60000);
+            }
+
+            assertSameAsArray(timestamps, random);
+        }
+    }
+
+    /**
+     * Stride breaks late in the axis and repeated timestamps, floorIndex returns the last of the repeated points.
+     */
+    @Test
+    public void duplicatesAndStrideBreaks() {
+        final Random random = new Random(3);
+        for (int round = 0; round < ROUNDS; round++) {
+            final long[] timestamps = new long[random.nextInt(300)];
+            long timestamp = START_TIMESTAMP;
+            for (int i = 0; i < timestamps.length; i++) {
+                timestamps[i] = timestamp;
+                if (random.nextInt(10) != 0) {
+                    timestamp += random.nextInt(20) == 0 ? 2 * DAY : DAY;
+                }
+            }
+
+            assertSameAsArray(timestamps, random);
+        }
+    }
+
+    /**
+     * Deltas of up to the full long range between neighbours, the varints take their longest form.
+     */
+    @Test
+    public void largeDeltas() {
+        final Random random = new Random(4);
+        for (int round = 0; round < ROUNDS; round++) {
+            final long[] timestamps = new long[random.nextInt(300)];
+            long timestamp = Long.MIN_VALUE / 2;
+            for (int i = 0; i < timestamps.length; i++) {
+                timestamps[i] = timestamp;
+                timestamp += (random.nextLong() >>> 2) / Math.max(1, timestamps.length);
+            }
+
+            assertSameAsArray(timestamps, random);
+        }
+    }
+
+    @Test
+    public void singlePoint() {
+        assertSameAsArray(new long[]{START_TIMESTAMP}, new Random(5));
+    }
+
+    @Test
+    public void wrapReadsTheArrayOnEveryAccess() {
+        final long[] timestamps = {START_TIMESTAMP, START_TIMESTAMP + DAY, START_TIMESTAMP + 2 * DAY};
+        final TimeAxis axis = TimeAxis.wrap(timestamps);
+
+        timestamps[1] = START_TIMESTAMP + DAY / 2;
+
+        assertEquals(START_TIMESTAMP + DAY / 2, axis.get(1));
+        assertEquals(1, axis.floorIndex(START_TIMESTAMP + DAY / 2));
+        assertEquals(0, axis.floorIndex(START_TIMESTAMP + DAY / 2 - 1));
+    }
+
+    private static void assertSameAsArray(long[] timestamps, Random random) {
+        final TimeAxis axis = TimeAxis.of(timestamps);
+        final TimeAxis array = TimeAxis.wrap(timestamps);
+
+        assertEquals(timestamps.length, axis.size());
+        for (int i = 0; i < timestamps.length; i++) {
+            assertEquals("Timestamp " + i, timestamps[i], axis.get(i));
+        }
+
+        for (int i = 0; i < timestamps.length; i++) {
+            assertFloorIndex(axis, array, timestamps[i]);
+            assertFloorIndex(axis, array, timestamps[i] - 1);
+            assertFloorIndex(axis, array, timestamps[i] + 1);
+        }
+        for (int i = 0; i < 100 && timestamps.length > 0; i++) {
+            final long first = timestamps[0];
+            final long last = timestamps[timestamps.length - 1];
+            final long span = Math.max(1, last / 2 - first / 2);
+            assertFloorIndex(axis, array, first / 2 + (long) (random.nextDouble() * 2.2 * span) - span / 10 + first / 2);
+        }
+        assertFloorIndex(axis, array, Long.MIN_VALUE);
+        assertFloorIndex(axis, array, Long.MAX_VALUE);
+
+        assertOutOfBounds(axis, -1);
+        assertOutOfBounds(axis, timestamps.length);
+    }
+
+    private static void assertFloorIndex(TimeAxis axis, TimeAxis array, long timestamp) {
+        assertEquals("Floor index of " + timestamp, array.floorIndex(timestamp), axis.floorIndex(timestamp));
+    }
+
+    private static void assertOutOfBounds(TimeAxis axis, int index) {
+        try {
+            axis.get(index);
+            fail("Index " + index + " of " + axis.size() + " points");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+}